@@ -0,0 +1,122 @@
+package org.chaiware.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.chaiware.emotion.util.ParsingUtility;
+
+/**
+ * Benchmark inputs, taken from the inputBaseline corpora of the project.
+ * <p>
+ * The corpora directory is given by the "corpus.dir" system property, by default it is
+ * looked up relative to the project root or to this benchmarks directory.
+ */
+final class Corpus {
+
+	private static final String[] FILE_NAMES = {
+			"angry.txt", "disgusted.txt", "fear.txt", "joy.txt", "sad.txt", "surprised.txt" };
+
+	/** Number of lines joined to form one long text */
+	private static final int LONG_TEXT_LINES = 40;
+
+	private static List<String> lines;
+
+	private Corpus() {
+	}
+
+	/**
+	 * @return all the lines of the corpora (each one a text of a few sentences)
+	 */
+	static synchronized List<String> lines() throws IOException {
+		if (lines == null) {
+			lines = new ArrayList<String>();
+			File dir = directory();
+			for (String fileName : FILE_NAMES) {
+				try (BufferedReader in = new BufferedReader(new InputStreamReader(
+						new FileInputStream(new File(dir, fileName)), StandardCharsets.UTF_8))) {
+					String line;
+					while ((line = in.readLine()) != null)
+						lines.add(line);
+				}
+			}
+		}
+
+		return lines;
+	}
+
+	/**
+	 * Returns texts of the given size: "short" (a single sentence), "medium" (a corpus line)
+	 * or "long" (several corpus lines, one per line).
+	 */
+	static String[] texts(String size) throws IOException {
+		List<String> value = new ArrayList<String>();
+		if ("short".equals(size)) {
+			for (String line : lines())
+				value.add(ParsingUtility.parseSentences(line).get(0));
+		} else if ("medium".equals(size)) {
+			value.addAll(lines());
+		} else if ("long".equals(size)) {
+			List<String> all = lines();
+			for (int i = 0; i + LONG_TEXT_LINES <= all.size(); i += LONG_TEXT_LINES) {
+				StringBuilder text = new StringBuilder();
+				for (String line : all.subList(i, i + LONG_TEXT_LINES))
+					text.append(line).append('\n');
+				value.add(text.toString());
+			}
+		} else {
+			throw new IllegalArgumentException("Unknown text size: " + size);
+		}
+
+		return value.toArray(new String[0]);
+	}
+
+	/**
+	 * @return the words of the corpora, as found by {@link ParsingUtility#parseWords(String)}, lower cased
+	 */
+	static String[] words() throws IOException {
+		List<String> value = new ArrayList<String>();
+		for (String line : lines()) {
+			for (String word : ParsingUtility.parseWords(line)) {
+				if (!word.trim().isEmpty())
+					value.add(word.toLowerCase());
+			}
+		}
+
+		return value.toArray(new String[0]);
+	}
+
+	/**
+	 * @return the space separated tokens of the corpora, as the emoticon lookup gets them
+	 */
+	static String[] tokens() throws IOException {
+		List<String> value = new ArrayList<String>();
+		for (String line : lines()) {
+			for (String token : line.split(" ")) {
+				if (!token.isEmpty())
+					value.add(token);
+			}
+		}
+
+		return value.toArray(new String[0]);
+	}
+
+	private static File directory() {
+		String property = System.getProperty("corpus.dir");
+		if (property != null)
+			return new File(property);
+
+		for (String candidate : new String[] { "test/test/inputBaseline", "../test/test/inputBaseline" }) {
+			File dir = new File(candidate);
+			if (dir.isDirectory())
+				return dir;
+		}
+
+		throw new IllegalStateException("Corpora not found, set -Dcorpus.dir=<path to test/test/inputBaseline>");
+	}
+}
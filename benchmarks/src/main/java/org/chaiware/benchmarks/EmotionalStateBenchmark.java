@@ -0,0 +1,64 @@
+package org.chaiware.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.chaiware.emotion.EmotionType;
+import org.chaiware.emotion.EmotionalState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Construction of an {@link EmotionalState} with all six emotions, and reading all of its weights.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EmotionalStateBenchmark {
+
+	private EmotionalState state;
+
+	@Setup
+	public void setUp() {
+		state = construct();
+	}
+
+	@Benchmark
+	public EmotionalState construct() {
+		double[] weights = new double[EmotionType.values().length];
+		weights[EmotionType.HAPPINESS.ordinal()] = 0.8;
+		weights[EmotionType.SADNESS.ordinal()] = 0.1;
+		weights[EmotionType.ANGER.ordinal()] = 0.3;
+		weights[EmotionType.FEAR.ordinal()] = 0.2;
+		weights[EmotionType.DISGUST.ordinal()] = 0.05;
+		weights[EmotionType.SURPRISE.ordinal()] = 0.6;
+		return new EmotionalState("text", weights, 0.8, 1);
+	}
+
+	@Benchmark
+	public void getters(Blackhole blackhole) {
+		blackhole.consume(state.getHappinessWeight());
+		blackhole.consume(state.getSadnessWeight());
+		blackhole.consume(state.getAngerWeight());
+		blackhole.consume(state.getFearWeight());
+		blackhole.consume(state.getDisgustWeight());
+		blackhole.consume(state.getSurpriseWeight());
+		blackhole.consume(state.getStrongestEmotion());
+	}
+
+	@Benchmark
+	public void strongestEmotions(Blackhole blackhole) {
+		blackhole.consume(state.getFirstStrongestEmotions(3));
+	}
+}
@@ -0,0 +1,61 @@
+package org.chaiware.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.chaiware.emotion.AnalysisContext;
+import org.chaiware.emotion.EmotionalState;
+import org.chaiware.emotion.Empathyscope;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Empathyscope#feel(String)} on short (one sentence), medium (a corpus line)
+ * and long (40 corpus lines) texts, and {@link Empathyscope#analyse(CharSequence, AnalysisContext)}
+ * with a reused context (run with {@code -prof gc} to see that it allocates nothing).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EmpathyscopeBenchmark {
+
+	@Param({ "short", "medium", "long" })
+	public String size;
+
+	private Empathyscope empathyscope;
+	private String[] texts;
+	private int next;
+	private AnalysisContext context;
+
+	@Setup
+	public void setUp() throws Exception {
+		empathyscope = Empathyscope.getInstance();
+		texts = Corpus.texts(size);
+		context = new AnalysisContext();
+	}
+
+	@Benchmark
+	public EmotionalState feel() throws Exception {
+		String text = texts[next];
+		next = (next + 1) % texts.length;
+		return empathyscope.feel(text);
+	}
+
+	@Benchmark
+	public double analyse() throws Exception {
+		String text = texts[next];
+		next = (next + 1) % texts.length;
+		return empathyscope.analyse(text, context).getGeneralWeight();
+	}
+}
@@ -0,0 +1,63 @@
+package org.chaiware.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.chaiware.emotion.AnalysisContext;
+import org.chaiware.emotion.Empathyscope;
+import org.chaiware.emotion.HeuristicRules;
+import org.chaiware.emotion.StandardRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Empathyscope#analyse(CharSequence, AnalysisContext)} of medium texts with all the
+ * standard rules, with the word rules switched off, and with no rule at all: disabled rules
+ * are never called and the features only they read are not scanned, so the time only goes
+ * down as rules are switched off.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HeuristicRulesBenchmark {
+
+	@Param({ "default", "noWordRules", "none" })
+	public String rules;
+
+	private Empathyscope empathyscope;
+	private AnalysisContext context;
+	private String[] texts;
+	private int next;
+
+	@Setup
+	public void setUp() throws Exception {
+		empathyscope = Empathyscope.getInstance();
+		texts = Corpus.texts("medium");
+		context = new AnalysisContext();
+		if ("default".equals(rules))
+			context.setRules(HeuristicRules.DEFAULT);
+		else if ("noWordRules".equals(rules))
+			context.setRules(HeuristicRules.DEFAULT.without(StandardRule.NEGATION)
+					.without(StandardRule.UPPER_CASE).without(StandardRule.INTENSITY_MODIFIER));
+		else
+			context.setRules(HeuristicRules.NONE);
+	}
+
+	@Benchmark
+	public double analyse() throws Exception {
+		String text = texts[next];
+		next = (next + 1) % texts.length;
+		return empathyscope.analyse(text, context).getGeneralWeight();
+	}
+}
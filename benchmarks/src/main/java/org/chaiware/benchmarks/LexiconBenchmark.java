@@ -0,0 +1,91 @@
+package org.chaiware.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.chaiware.emotion.AffectWord;
+import org.chaiware.emotion.util.EmoticonMatch;
+import org.chaiware.emotion.util.LexicalUtility;
+import org.chaiware.emotion.util.TokenDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lexicon lookups of the corpora words (mostly misses, as in real text) and emoticon
+ * lookups of the corpora tokens. Case insensitive lookups of the tokens compare lower
+ * casing the token first with the range probe, which does not create a String. Classifying
+ * a token (negation, intensity modifier, word or emoticon) is a single probe of the
+ * {@link TokenDictionary}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LexiconBenchmark {
+
+	private LexicalUtility lexUtil;
+	private TokenDictionary dictionary;
+	private String[] words;
+	private String[] tokens;
+	private int nextWord;
+	private int nextToken;
+
+	@Setup
+	public void setUp() throws Exception {
+		lexUtil = LexicalUtility.getInstance();
+		dictionary = lexUtil.getTokenDictionary();
+		words = Corpus.words();
+		tokens = Corpus.tokens();
+	}
+
+	@Benchmark
+	public int getWordId() {
+		String word = words[nextWord];
+		nextWord = (nextWord + 1) % words.length;
+		return lexUtil.getWordId(word);
+	}
+
+	@Benchmark
+	public int lowerCaseAndGetWordId() {
+		String token = tokens[nextToken];
+		nextToken = (nextToken + 1) % tokens.length;
+		return lexUtil.getWordId(token.toLowerCase());
+	}
+
+	@Benchmark
+	public int getWordIdIgnoreCase() {
+		String token = tokens[nextToken];
+		nextToken = (nextToken + 1) % tokens.length;
+		return lexUtil.getWordId(token, 0, token.length());
+	}
+
+	@Benchmark
+	public AffectWord getEmoticonAffectWord() {
+		String token = tokens[nextToken];
+		nextToken = (nextToken + 1) % tokens.length;
+		return lexUtil.getEmoticonAffectWord(token);
+	}
+
+	@Benchmark
+	public EmoticonMatch matchEmoticon() {
+		String token = tokens[nextToken];
+		nextToken = (nextToken + 1) % tokens.length;
+		return lexUtil.matchEmoticon(token);
+	}
+
+	@Benchmark
+	public int classify() {
+		String token = tokens[nextToken];
+		nextToken = (nextToken + 1) % tokens.length;
+		return dictionary.classify(token, 0, token.length());
+	}
+}
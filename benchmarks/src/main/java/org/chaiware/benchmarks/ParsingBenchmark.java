@@ -0,0 +1,70 @@
+package org.chaiware.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.chaiware.emotion.util.ParsingUtility;
+import org.chaiware.emotion.util.TextTokenizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ParsingUtility#parseSentences(String)} of corpus lines, and
+ * {@link ParsingUtility#parseWords(String)} of their space separated tokens, and
+ * the same sentences, tokens and words walked by a {@link TextTokenizer}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParsingBenchmark {
+
+	private String[] lines;
+	private String[] tokens;
+	private int nextLine;
+	private int nextToken;
+	private final TextTokenizer tokenizer = new TextTokenizer();
+
+	@Setup
+	public void setUp() throws Exception {
+		lines = Corpus.texts("medium");
+		tokens = Corpus.tokens();
+	}
+
+	@Benchmark
+	public List<String> parseSentences() {
+		String line = lines[nextLine];
+		nextLine = (nextLine + 1) % lines.length;
+		return ParsingUtility.parseSentences(line);
+	}
+
+	@Benchmark
+	public List<String> parseWords() {
+		String token = tokens[nextToken];
+		nextToken = (nextToken + 1) % tokens.length;
+		return ParsingUtility.parseWords(token);
+	}
+
+	@Benchmark
+	public int tokenize() {
+		String line = lines[nextLine];
+		nextLine = (nextLine + 1) % lines.length;
+		int words = 0;
+		tokenizer.reset(line);
+		while (tokenizer.nextSentence())
+			while (tokenizer.nextChunk())
+				while (tokenizer.nextWord())
+					words++;
+		return words;
+	}
+}
@@ -0,0 +1,116 @@
+package org.chaiware.app;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveAction;
+
+import org.chaiware.emotion.EmotionalState;
+import org.chaiware.emotion.Empathyscope;
+
+/**
+ * Fork-join analysis of a batch of texts, see {@link TextToEmotion#textToEmotions(Iterable)}.
+ * <p>
+ * Identical texts are analysed once, the distinct texts are split in halves until a
+ * slice is small enough to be analysed by one worker (with the per-thread
+ * {@link org.chaiware.emotion.AnalysisContext} of the {@link Empathyscope}).
+ */
+class BatchAnalysis extends RecursiveAction {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Number of texts below which a slice is analysed rather than split further */
+	private static final int SLICE_SIZE = 32;
+
+	private final Empathyscope empathyscope;
+	private final String[] texts;
+	private final EmotionalState[] results;
+	private final int from;
+	private final int to;
+
+	private BatchAnalysis(Empathyscope empathyscope, String[] texts, EmotionalState[] results, int from, int to) {
+		this.empathyscope = empathyscope;
+		this.texts = texts;
+		this.results = results;
+		this.from = from;
+		this.to = to;
+	}
+
+	/**
+	 * Creates the task which analyses the distinct texts of the batch.
+	 * 
+	 * @param empathyscope {@link Empathyscope} to analyse with
+	 * @param distinctTexts array of the distinct texts
+	 * @param results array receiving the {@link EmotionalState} of each distinct text
+	 * @return {@link BatchAnalysis} task, to be invoked by a fork-join pool
+	 */
+	static BatchAnalysis of(Empathyscope empathyscope, String[] distinctTexts, EmotionalState[] results) {
+		return new BatchAnalysis(empathyscope, distinctTexts, results, 0, distinctTexts.length);
+	}
+
+	@Override
+	protected void compute() {
+		if (to - from <= SLICE_SIZE) {
+			try {
+				for (int i = from; i < to; i++)
+					results[i] = empathyscope.feel(texts[i]);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		} else {
+			int middle = (from + to) >>> 1;
+			invokeAll(new BatchAnalysis(empathyscope, texts, results, from, middle),
+					new BatchAnalysis(empathyscope, texts, results, middle, to));
+		}
+	}
+
+	/**
+	 * Maps each text of the batch to its distinct text, keeping the order of first appearance.
+	 * 
+	 * @param texts {@link Iterable} of the texts of the batch
+	 * @param distinctTexts {@link List} which receives the distinct texts
+	 * @return array holding, for each text of the batch, the index of its distinct text
+	 */
+	static int[] distinct(Iterable<String> texts, List<String> distinctTexts) {
+		Map<String, Integer> indexes = new HashMap<String, Integer>();
+		int[] value = new int[16];
+		int count = 0;
+		for (String text : texts) {
+			Integer index = indexes.get(text);
+			if (index == null) {
+				index = distinctTexts.size();
+				indexes.put(text, index);
+				distinctTexts.add(text);
+			}
+			if (count == value.length)
+				value = Arrays.copyOf(value, count * 2);
+			value[count++] = index;
+		}
+
+		return Arrays.copyOf(value, count);
+	}
+
+	/**
+	 * Lays the results of the distinct texts back out in the order of the batch. The repeats
+	 * of a text get their own copy of its state, so changing one (e.g. its previous state)
+	 * does not change the others.
+	 * 
+	 * @param indexes array holding, for each text of the batch, the index of its distinct text
+	 * @param results array of the {@link EmotionalState} of each distinct text
+	 * @return {@link List} of the {@link EmotionalState} of each text of the batch
+	 */
+	static List<EmotionalState> inBatchOrder(int[] indexes, EmotionalState[] results) {
+		List<EmotionalState> value = new ArrayList<EmotionalState>(indexes.length);
+		boolean[] used = new boolean[results.length];
+		for (int index : indexes) {
+			value.add(used[index] ? results[index].copy() : results[index]);
+			used[index] = true;
+		}
+
+		return value;
+	}
+}
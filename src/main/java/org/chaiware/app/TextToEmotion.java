@@ -1,7 +1,16 @@
 package org.chaiware.app;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
+import org.chaiware.emotion.EmotionExecutor;
+import org.chaiware.emotion.EmotionalSpan;
 import org.chaiware.emotion.EmotionalState;
 import org.chaiware.emotion.Empathyscope;
 import org.slf4j.Logger;
@@ -12,6 +21,10 @@ public class TextToEmotion {
 
 	private static Logger logger = LoggerFactory.getLogger(TextToEmotion.class);
 
+	/** Number of pending analyses per thread of the executor of {@link #textToEmotionAsync(String)} */
+	private static final int ASYNC_PENDING_PER_THREAD = 256;
+	private static volatile EmotionExecutor defaultExecutor;
+
 	/** For internal use, in order to try the app and see that it is working while developing it */
 	public static void main(String[] args ) throws Exception {
 		if (args.length < 1) {
@@ -23,6 +36,26 @@ public class TextToEmotion {
 		logger.info(textToEmotion(text).toString());
 	}
 
+	/**
+	 * Use this method in order to start loading the internal files on a background thread (e.g. when a
+	 * service boots), instead of on the first analysis. Analyses started before the loading is
+	 * done wait for it, the files are loaded only once.
+	 * 
+	 * @return {@link CompletableFuture} which completes with the {@link Empathyscope} when the loading is done (or failed)
+	 */
+	public static CompletableFuture<Empathyscope> preload() {
+		return Empathyscope.preload();
+	}
+
+	/**
+	 * Use this method in order to know if the internal files are loaded, so analyses do not wait for them.
+	 * 
+	 * @return boolean, true if the internal files are loaded
+	 */
+	public static boolean isReady() {
+		return Empathyscope.isReady();
+	}
+
 	/** Use this method in order to analyze any text for emotions */
 	public static EmotionalState textToEmotion(String text) throws Exception {
 
@@ -36,4 +69,112 @@ public class TextToEmotion {
 
 		return sentenceState;
 	}
+
+	/**
+	 * Use this method in order to analyze a text for emotions without blocking the calling thread.
+	 * The analysis runs on a shared {@link EmotionExecutor} with one thread per core, which holds at
+	 * most 256 pending analyses per thread and rejects the
+	 * analyses beyond that (see {@link #textToEmotionAsync(String, EmotionExecutor)} for other limits
+	 * and policies).
+	 * 
+	 * @param text the text to analyze
+	 * @return {@link CompletableFuture} completed with the {@link EmotionalState} of the text, or with the
+	 *         failure of the analysis (a {@link java.util.concurrent.RejectedExecutionException} when the
+	 *         executor is full)
+	 */
+	public static CompletableFuture<EmotionalState> textToEmotionAsync(String text) {
+		return textToEmotionAsync(text, getDefaultExecutor());
+	}
+
+	/**
+	 * Use this method in order to analyze a text for emotions without blocking the calling thread,
+	 * on the given executor (whose limits and {@link EmotionExecutor.Backpressure} policy apply).
+	 * Cancelling the returned future of a queued analysis removes it from the executor.
+	 * 
+	 * @param text the text to analyze
+	 * @param executor {@link EmotionExecutor} which runs the analysis
+	 * @return {@link CompletableFuture} completed with the {@link EmotionalState} of the text, or with the
+	 *         failure of the analysis
+	 */
+	public static CompletableFuture<EmotionalState> textToEmotionAsync(String text, EmotionExecutor executor) {
+		return executor.feel(text);
+	}
+
+	/**
+	 * Use this method in order to analyze a text for emotions per paragraph and per sentence,
+	 * with their offsets in the text (the text is analyzed once).
+	 * 
+	 * @param text the text to analyze
+	 * @return {@link EmotionalSpan} of the whole text, whose parts are the paragraphs, whose parts are the sentences
+	 */
+	public static EmotionalSpan textToEmotionBreakdown(String text) throws Exception {
+		try {
+			return Empathyscope.getInstance().feelBreakdown(text);
+		} catch (IOException e) {
+			logger.debug("TextToEmotion failure", e);
+			throw new Exception("TextToEmotion failed to start (probably due to failure of loading its internal files)");
+		}
+	}
+
+	/**
+	 * Use this method in order to analyze a batch of texts for emotions, using all the cores
+	 * (the common fork-join pool). Identical texts are analyzed only once, each gets its own copy of the result.
+	 * 
+	 * @param texts the texts to analyze
+	 * @return {@link List} of the {@link EmotionalState} of each text, in the order of the texts
+	 */
+	public static List<EmotionalState> textToEmotions(Iterable<String> texts) throws Exception {
+		return textToEmotions(texts, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Use this method in order to analyze a batch of texts for emotions, using all the cores
+	 * (the common fork-join pool). Identical texts are analyzed only once, each gets its own copy of the result.
+	 * 
+	 * @param texts the texts to analyze
+	 * @return {@link List} of the {@link EmotionalState} of each text, in the order of the texts
+	 */
+	public static List<EmotionalState> textToEmotions(String[] texts) throws Exception {
+		return textToEmotions(Arrays.asList(texts));
+	}
+
+	/**
+	 * Use this method in order to analyze a batch of texts for emotions on the given work-stealing pool.
+	 * Identical texts are analyzed only once, each gets its own copy of the result.
+	 * 
+	 * @param texts the texts to analyze
+	 * @param pool {@link ForkJoinPool} which runs the analysis
+	 * @return {@link List} of the {@link EmotionalState} of each text, in the order of the texts
+	 */
+	public static List<EmotionalState> textToEmotions(Iterable<String> texts, ForkJoinPool pool) throws Exception {
+
+		List<String> distinctTexts = new ArrayList<String>();
+		int[] indexes = BatchAnalysis.distinct(texts, distinctTexts);
+		EmotionalState[] results = new EmotionalState[distinctTexts.size()];
+		try {
+			pool.invoke(BatchAnalysis.of(Empathyscope.getInstance(), distinctTexts.toArray(new String[0]), results));
+		} catch (IOException | UncheckedIOException e) {
+			logger.debug("TextToEmotion failure", e);
+			throw new Exception("TextToEmotion failed to start (probably due to failure of loading its internal files)");
+		}
+
+		return BatchAnalysis.inBatchOrder(indexes, results);
+	}
+
+	private static EmotionExecutor getDefaultExecutor() {
+		EmotionExecutor value = defaultExecutor;
+		if (value == null) {
+			synchronized (TextToEmotion.class) {
+				value = defaultExecutor;
+				if (value == null) {
+					int threads = Runtime.getRuntime().availableProcessors();
+					value = new EmotionExecutor(threads, threads * (ASYNC_PENDING_PER_THREAD - 1),
+							EmotionExecutor.Backpressure.REJECT, 0L, TimeUnit.MILLISECONDS);
+					defaultExecutor = value;
+				}
+			}
+		}
+
+		return value;
+	}
 }
@@ -0,0 +1,212 @@
+package org.chaiware.emotion;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * Per-analysis scratch state of {@link Empathyscope#feel(String)}: the weights of the
+ * affect word currently being adjusted by the heuristic rules, and the running
+ * weights of the whole text.
+ * <p>
+ * The shared {@link AffectWord} instances and {@link AffectLexicon} entries are never modified, a word is
+ * loaded into the accumulator, adjusted (negation flip, coefficients), then accumulated.
+ * An accumulator can be reused for several analyses (see {@link #reset()}), but not by
+ * several threads at the same time.
+ */
+public class AffectAccumulator {
+
+	private static final EmotionType[] TYPES = EmotionType.values();
+
+	// the affect word being adjusted
+	private double generalWeight;
+	private double generalValence;
+	private double happinessWeight;
+	private double sadnessWeight;
+	private double angerWeight;
+	private double fearWeight;
+	private double disgustWeight;
+	private double surpriseWeight;
+
+	// the maximum weights of the text
+	private double valenceSum;
+	private double maxGeneralWeight;
+	private double maxHappinessWeight;
+	private double maxSadnessWeight;
+	private double maxAngerWeight;
+	private double maxFearWeight;
+	private double maxDisgustWeight;
+	private double maxSurpriseWeight;
+
+	/**
+	 * Clears the running weights of the text, so the accumulator can be used for the next one.
+	 */
+	public void reset() {
+		valenceSum = 0.0;
+		maxGeneralWeight = 0.0;
+		maxHappinessWeight = 0.0;
+		maxSadnessWeight = 0.0;
+		maxAngerWeight = 0.0;
+		maxFearWeight = 0.0;
+		maxDisgustWeight = 0.0;
+		maxSurpriseWeight = 0.0;
+	}
+
+	/**
+	 * Loads the weights of the word, to be adjusted before they are accumulated.
+	 *
+	 * @param affectWord {@link AffectWord} from the Lexicon
+	 */
+	public void load(AffectWord affectWord) {
+		generalWeight = affectWord.getGeneralWeight();
+		generalValence = affectWord.getGeneralValence();
+		happinessWeight = affectWord.getHappinessWeight();
+		sadnessWeight = affectWord.getSadnessWeight();
+		angerWeight = affectWord.getAngerWeight();
+		fearWeight = affectWord.getFearWeight();
+		disgustWeight = affectWord.getDisgustWeight();
+		surpriseWeight = affectWord.getSurpriseWeight();
+	}
+
+	/**
+	 * Loads the weights of the Lexicon entry, to be adjusted before they are accumulated.
+	 *
+	 * @param lexicon {@link AffectLexicon} holding the entry
+	 * @param id int representing the id of the entry
+	 * @param negated boolean, true to load the weights with the valence already flipped (see {@link #flipValence()})
+	 */
+	public void load(AffectLexicon lexicon, int id, boolean negated) {
+		DoubleBuffer weights = lexicon.weights();
+		int row = lexicon.offset(id, negated);
+		generalWeight = weights.get(row + AffectLexicon.GENERAL);
+		generalValence = weights.get(row + AffectLexicon.VALENCE);
+		happinessWeight = weights.get(row + AffectLexicon.HAPPINESS);
+		sadnessWeight = weights.get(row + AffectLexicon.SADNESS);
+		angerWeight = weights.get(row + AffectLexicon.ANGER);
+		fearWeight = weights.get(row + AffectLexicon.FEAR);
+		disgustWeight = weights.get(row + AffectLexicon.DISGUST);
+		surpriseWeight = weights.get(row + AffectLexicon.SURPRISE);
+	}
+
+	/**
+	 * Flips valence of the loaded word -- calculates change from postive to negative emotion.
+	 */
+	public void flipValence() {
+		generalValence = -generalValence;
+		double temp = happinessWeight;
+		happinessWeight = Math.max(Math.max(sadnessWeight, angerWeight), Math.max(fearWeight, disgustWeight));
+		sadnessWeight = temp;
+		angerWeight = temp / 2;
+		fearWeight = temp / 2;
+		disgustWeight = temp / 2;
+	}
+
+	/**
+	 * Adjusts weights of the loaded word by the certain quoficient (weights stay at most 1).
+	 *
+	 * @param quoficient double representing the quoficient for adjusting the weights
+	 */
+	public void adjustWeights(double quoficient) {
+		generalWeight = Math.min(generalWeight * quoficient, 1.0);
+		happinessWeight = Math.min(happinessWeight * quoficient, 1.0);
+		sadnessWeight = Math.min(sadnessWeight * quoficient, 1.0);
+		angerWeight = Math.min(angerWeight * quoficient, 1.0);
+		fearWeight = Math.min(fearWeight * quoficient, 1.0);
+		disgustWeight = Math.min(disgustWeight * quoficient, 1.0);
+		surpriseWeight = Math.min(surpriseWeight * quoficient, 1.0);
+	}
+
+	/**
+	 * Adds the loaded (and adjusted) word to the weights of the text,
+	 * maximum weights for the particular emotion are taken.
+	 */
+	public void accumulate() {
+		valenceSum += generalValence;
+		maxGeneralWeight = Math.max(maxGeneralWeight, generalWeight);
+		maxHappinessWeight = Math.max(maxHappinessWeight, happinessWeight);
+		maxSadnessWeight = Math.max(maxSadnessWeight, sadnessWeight);
+		maxAngerWeight = Math.max(maxAngerWeight, angerWeight);
+		maxFearWeight = Math.max(maxFearWeight, fearWeight);
+		maxDisgustWeight = Math.max(maxDisgustWeight, disgustWeight);
+		maxSurpriseWeight = Math.max(maxSurpriseWeight, surpriseWeight);
+	}
+
+	/**
+	 * Adds the running weights of another accumulator (e.g. of one sentence) to the weights of this one.
+	 *
+	 * @param other {@link AffectAccumulator} whose running weights are added
+	 */
+	public void accumulate(AffectAccumulator other) {
+		valenceSum += other.valenceSum;
+		maxGeneralWeight = Math.max(maxGeneralWeight, other.maxGeneralWeight);
+		maxHappinessWeight = Math.max(maxHappinessWeight, other.maxHappinessWeight);
+		maxSadnessWeight = Math.max(maxSadnessWeight, other.maxSadnessWeight);
+		maxAngerWeight = Math.max(maxAngerWeight, other.maxAngerWeight);
+		maxFearWeight = Math.max(maxFearWeight, other.maxFearWeight);
+		maxDisgustWeight = Math.max(maxDisgustWeight, other.maxDisgustWeight);
+		maxSurpriseWeight = Math.max(maxSurpriseWeight, other.maxSurpriseWeight);
+	}
+
+	/**
+	 * Getter for the emotional valence of the text (-1, 0 or 1), as in its {@link EmotionalState}.
+	 *
+	 * @return int representing the valence
+	 */
+	public int getValence() {
+		if (valenceSum > 0)
+			return 1;
+		if (valenceSum < 0)
+			return -1;
+
+		return 0;
+	}
+
+	/**
+	 * Getter for the general emotional weight of the text, as in its {@link EmotionalState}.
+	 *
+	 * @return double representing the general weight
+	 */
+	public double getMaxGeneralWeight() {
+		return maxGeneralWeight;
+	}
+
+	/**
+	 * Getter for the weight of the given emotion in the text, as in its {@link EmotionalState}
+	 * (a text without any emotion is neutral).
+	 *
+	 * @param type {@link EmotionType} of the emotion
+	 * @return double representing the weight
+	 */
+	public double getMaxWeight(EmotionType type) {
+		switch (type) {
+		case HAPPINESS:
+			return maxHappinessWeight;
+		case SADNESS:
+			return maxSadnessWeight;
+		case FEAR:
+			return maxFearWeight;
+		case ANGER:
+			return maxAngerWeight;
+		case DISGUST:
+			return maxDisgustWeight;
+		case SURPRISE:
+			return maxSurpriseWeight;
+		default:
+			boolean neutral = (maxHappinessWeight <= 0) && (maxSadnessWeight <= 0) && (maxAngerWeight <= 0)
+					&& (maxFearWeight <= 0) && (maxDisgustWeight <= 0) && (maxSurpriseWeight <= 0);
+			return neutral ? (0.2 + maxGeneralWeight) / 1.2 : 0.0;
+		}
+	}
+
+	/**
+	 * Creates the {@link EmotionalState} of the text from the accumulated weights.
+	 *
+	 * @param text {@link String} representing the analysed text, or null if it is not kept
+	 * @return {@link EmotionalState} of the text
+	 */
+	public EmotionalState toEmotionalState(String text) {
+		double[] weights = new double[TYPES.length];
+		for (int i = 0; i < TYPES.length; i++)
+			weights[i] = getMaxWeight(TYPES[i]);
+
+		return EmotionalState.of(text, weights, maxGeneralWeight, getValence());
+	}
+}
@@ -0,0 +1,267 @@
+package org.chaiware.emotion;
+
+import java.nio.Buffer;
+import java.nio.CharBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact storage of a Lexicon: each entry gets an int id (its position in the Lexicon
+ * file), all the weights of all the entries are kept in one buffer of doubles and all
+ * the words in one buffer of chars, instead of one {@link AffectWord} object per entry.
+ * <p>
+ * Every entry has two rows of weights: the weights as they are in the Lexicon, and the
+ * weights after a negation flipped the valence of the entry (see
+ * {@link AffectAccumulator#flipValence()}), which are computed once, when the entry is added.
+ * <p>
+ * A row holds, in this order: general weight, general valence, happiness, sadness,
+ * anger, fear, disgust and surprise weights. The buffers are either on the heap, filled by
+ * {@link #add(String, double, double, double, double, double, double, double)} while the
+ * Lexicon is loaded, or read only views of a precompiled Lexicon image (which may be memory
+ * mapped). Afterwards the instance is only read and can be shared by all threads.
+ */
+public final class AffectLexicon {
+
+	static final int GENERAL = 0;
+	static final int VALENCE = 1;
+	static final int HAPPINESS = 2;
+	static final int SADNESS = 3;
+	static final int ANGER = 4;
+	static final int FEAR = 5;
+	static final int DISGUST = 6;
+	static final int SURPRISE = 7;
+
+	/** Number of weights in a row */
+	public static final int ROW = 8;
+
+	/** Id of no entry, returned by lookups which found nothing */
+	public static final int NONE = -1;
+
+	private DoubleBuffer weights;
+	private IntBuffer wordEnds;
+	private CharBuffer chars;
+	private int size;
+	private int length;
+	private final boolean readOnly;
+
+	/**
+	 * Class constructor which sizes the heap storage for the expected number of entries
+	 * (it grows when more are added).
+	 *
+	 * @param expectedSize int representing the expected number of entries
+	 */
+	public AffectLexicon(int expectedSize) {
+		int capacity = Math.max(expectedSize, 16);
+		weights = DoubleBuffer.allocate(capacity * 2 * ROW);
+		wordEnds = IntBuffer.allocate(capacity);
+		chars = CharBuffer.allocate(capacity * 8);
+		readOnly = false;
+	}
+
+	/**
+	 * Class constructor which reads the entries from the buffers, as they are returned by
+	 * {@link #getWeights()}, {@link #getWordEnds()} and {@link #getChars()}. The buffers are
+	 * used in place, and no entries can be added.
+	 *
+	 * @param weights {@link DoubleBuffer} holding the two rows of weights of each entry
+	 * @param wordEnds {@link IntBuffer} holding the offset after the last char of each word
+	 * @param chars {@link CharBuffer} holding the words, one after the other
+	 */
+	public AffectLexicon(DoubleBuffer weights, IntBuffer wordEnds, CharBuffer chars) {
+		if (weights.limit() != wordEnds.limit() * 2 * ROW)
+			throw new IllegalArgumentException("Lexicon has " + wordEnds.limit() + " words but "
+					+ weights.limit() + " weights");
+
+		this.weights = weights;
+		this.wordEnds = wordEnds;
+		this.chars = chars;
+		size = wordEnds.limit();
+		length = chars.limit();
+		readOnly = true;
+	}
+
+	/**
+	 * Adds an entry and its weights, valence is calculated as a function of the different
+	 * emotion type weights (as {@link AffectWord} does).
+	 *
+	 * @param word {@link String} representing the word
+	 * @param generalWeight double representing the general emotional weight
+	 * @param happinessWeight double representing the happiness weight
+	 * @param sadnessWeight double representing the sadness weight
+	 * @param angerWeight double representing the anger weight
+	 * @param fearWeight double representing the fear weight
+	 * @param disgustWeight double representing the disgust weight
+	 * @param surpriseWeight double representing the surprise weight
+	 * @return int representing the id of the entry
+	 */
+	public int add(String word, double generalWeight, double happinessWeight, double sadnessWeight,
+			double angerWeight, double fearWeight, double disgustWeight, double surpriseWeight) {
+
+		if (readOnly)
+			throw new IllegalStateException("Lexicon is read only");
+
+		if (size == wordEnds.capacity()) {
+			weights = DoubleBuffer.wrap(Arrays.copyOf(weights.array(), size * 2 * 2 * ROW));
+			wordEnds = IntBuffer.wrap(Arrays.copyOf(wordEnds.array(), size * 2));
+		}
+		if (length + word.length() > chars.capacity())
+			chars = CharBuffer.wrap(Arrays.copyOf(chars.array(), Math.max(length * 2, length + word.length())));
+
+		int id = size++;
+		for (int i = 0; i < word.length(); i++)
+			chars.put(length++, word.charAt(i));
+		wordEnds.put(id, length);
+
+		double valence = happinessWeight - sadnessWeight - angerWeight - fearWeight - disgustWeight;
+		int row = offset(id, false);
+		weights.put(row + GENERAL, generalWeight);
+		weights.put(row + VALENCE, valence);
+		weights.put(row + HAPPINESS, happinessWeight);
+		weights.put(row + SADNESS, sadnessWeight);
+		weights.put(row + ANGER, angerWeight);
+		weights.put(row + FEAR, fearWeight);
+		weights.put(row + DISGUST, disgustWeight);
+		weights.put(row + SURPRISE, surpriseWeight);
+
+		int negated = offset(id, true);
+		weights.put(negated + GENERAL, generalWeight);
+		weights.put(negated + VALENCE, -valence);
+		weights.put(negated + HAPPINESS, Math.max(Math.max(sadnessWeight, angerWeight), Math.max(fearWeight, disgustWeight)));
+		weights.put(negated + SADNESS, happinessWeight);
+		weights.put(negated + ANGER, happinessWeight / 2);
+		weights.put(negated + FEAR, happinessWeight / 2);
+		weights.put(negated + DISGUST, happinessWeight / 2);
+		weights.put(negated + SURPRISE, surpriseWeight);
+
+		return id;
+	}
+
+	/**
+	 * Adds an entry with the weights of the {@link AffectWord}.
+	 *
+	 * @param affectWord {@link AffectWord} to be added
+	 * @return int representing the id of the entry
+	 */
+	public int add(AffectWord affectWord) {
+		return add(affectWord.getWord(), affectWord.getGeneralWeight(), affectWord.getHappinessWeight(),
+				affectWord.getSadnessWeight(), affectWord.getAngerWeight(), affectWord.getFearWeight(),
+				affectWord.getDisgustWeight(), affectWord.getSurpriseWeight());
+	}
+
+	/**
+	 * @return the number of entries
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Getter for the word of the entry, a new {@link String} is created on each call.
+	 *
+	 * @param id int representing the id of the entry
+	 * @return {@link String} which represents the word
+	 */
+	public String getWord(int id) {
+		return chars.subSequence(wordStart(id), wordEnds.get(id)).toString();
+	}
+
+	/**
+	 * Returns true if the word of the entry equals the chars between the offsets of the text,
+	 * optionally comparing with the lower cased chars of the text (whatever the default locale).
+	 *
+	 * @param id int representing the id of the entry
+	 * @param text {@link CharSequence} holding the chars
+	 * @param start int representing the offset of the first char
+	 * @param end int representing the offset after the last char
+	 * @param ignoreCase boolean, true if the chars of the text should be lower cased
+	 * @return boolean, true if the word equals the chars
+	 */
+	public boolean wordEquals(int id, CharSequence text, int start, int end, boolean ignoreCase) {
+		int wordStart = wordStart(id);
+		if (wordEnds.get(id) - wordStart != end - start)
+			return false;
+		for (int k = 0; k < end - start; k++) {
+			char c = text.charAt(start + k);
+			if (chars.get(wordStart + k) != (ignoreCase ? Character.toLowerCase(c) : c))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Creates an {@link AffectWord} with the word and weights of the entry.
+	 *
+	 * @param id int representing the id of the entry
+	 * @return new {@link AffectWord}
+	 */
+	public AffectWord getAffectWord(int id) {
+		int row = offset(id, false);
+		return new AffectWord(getWord(id), weights.get(row + GENERAL), weights.get(row + HAPPINESS),
+				weights.get(row + SADNESS), weights.get(row + ANGER), weights.get(row + FEAR),
+				weights.get(row + DISGUST), weights.get(row + SURPRISE));
+	}
+
+	/**
+	 * Creates the {@link AffectWord} instances of all the entries, in id order.
+	 *
+	 * @return {@link List} of new {@link AffectWord} instances
+	 */
+	public List<AffectWord> getAffectWords() {
+		List<AffectWord> value = new ArrayList<AffectWord>(size);
+		for (int id = 0; id < size; id++)
+			value.add(getAffectWord(id));
+
+		return value;
+	}
+
+	/**
+	 * @return read only view of the weights, {@link #ROW} weights per row and two rows per entry
+	 */
+	public DoubleBuffer getWeights() {
+		return view(weights.asReadOnlyBuffer(), size * 2 * ROW);
+	}
+
+	/**
+	 * @return read only view of the offsets after the last char of each word
+	 */
+	public IntBuffer getWordEnds() {
+		return view(wordEnds.asReadOnlyBuffer(), size);
+	}
+
+	/**
+	 * @return read only view of the chars of the words, one word after the other
+	 */
+	public CharBuffer getChars() {
+		return view(chars.asReadOnlyBuffer(), length);
+	}
+
+	/**
+	 * Returns the offset of the row of the entry in the buffer of the weights.
+	 *
+	 * @param id int representing the id of the entry
+	 * @param negated boolean, true for the row of the weights after the valence was flipped
+	 * @return int representing the offset of the row
+	 */
+	int offset(int id, boolean negated) {
+		return (id * 2 + (negated ? 1 : 0)) * ROW;
+	}
+
+	/** @return the weights of all the entries (not a view), to be read only */
+	DoubleBuffer weights() {
+		return weights;
+	}
+
+	private int wordStart(int id) {
+		return id == 0 ? 0 : wordEnds.get(id - 1);
+	}
+
+	private static <T extends Buffer> T view(T buffer, int limit) {
+		buffer.clear();
+		buffer.limit(limit);
+		return buffer;
+	}
+}
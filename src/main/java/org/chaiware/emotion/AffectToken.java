@@ -0,0 +1,136 @@
+package org.chaiware.emotion;
+
+import org.chaiware.emotion.util.EmoticonMatch;
+import org.chaiware.emotion.util.TokenDictionary;
+
+/**
+ * An affect word or an emoticon of the sentence, as the {@link HeuristicRule} instances see it:
+ * its offsets, its classification and the one of the previous word (see
+ * {@link TokenDictionary#classify(CharSequence, int, int)}), the last negation before it, and the
+ * quoficient and the negation the rules have applied to it so far.
+ * <p>
+ * The token is reused for all the tokens of an analysis, rules must not keep it.
+ */
+public final class AffectToken {
+
+	/** Offset of the last negation when there is none in the sentence */
+	public static final int NONE = -1;
+
+	private int start;
+	private int end;
+	private int classification;
+	private int previousClassification;
+	private EmoticonMatch emoticon;
+	private int negationEnd;
+	private double quoficient;
+	private boolean negated;
+
+	/** Starts a sentence: there is no previous word and no negation yet */
+	void startSentence() {
+		previousClassification = 0;
+		negationEnd = NONE;
+	}
+
+	/** Moves to the word between the offsets */
+	void setWord(int start, int end, int classification) {
+		set(start, end, classification, null);
+	}
+
+	/** Moves to the emoticon chunk between the offsets */
+	void setEmoticon(int start, int end, EmoticonMatch emoticon) {
+		set(start, end, 0, emoticon);
+	}
+
+	private void set(int start, int end, int classification, EmoticonMatch emoticon) {
+		this.start = start;
+		this.end = end;
+		this.classification = classification;
+		this.emoticon = emoticon;
+		quoficient = 1.0;
+		negated = false;
+	}
+
+	/** Records the classification of a word, which is the previous word of the next token */
+	void setPreviousClassification(int classification) {
+		previousClassification = classification;
+	}
+
+	/** Records the offset after the last negation of the sentence */
+	void setNegationEnd(int negationEnd) {
+		this.negationEnd = negationEnd;
+	}
+
+	/**
+	 * @return the offset of the token's first char
+	 */
+	public int getStart() {
+		return start;
+	}
+
+	/**
+	 * @return the offset after the token's last char
+	 */
+	public int getEnd() {
+		return end;
+	}
+
+	/**
+	 * @return the classification of the word (0 for an emoticon chunk)
+	 */
+	public int getClassification() {
+		return classification;
+	}
+
+	/**
+	 * @return the classification of the previous word of the sentence (0 when there is none)
+	 */
+	public int getPreviousClassification() {
+		return previousClassification;
+	}
+
+	/**
+	 * @return the {@link EmoticonMatch} of an emoticon chunk, or null for an affect word
+	 */
+	public EmoticonMatch getEmoticon() {
+		return emoticon;
+	}
+
+	/**
+	 * @return the offset after the last negation of the sentence up to the token (it may be the
+	 *         token itself), or {@link #NONE}
+	 */
+	public int getNegationEnd() {
+		return negationEnd;
+	}
+
+	/**
+	 * @return the quoficient of the token's weights, the product of the rules' quoficients
+	 */
+	public double getQuoficient() {
+		return quoficient;
+	}
+
+	/**
+	 * @return boolean, true if the valence of the token is flipped
+	 */
+	public boolean isNegated() {
+		return negated;
+	}
+
+	/**
+	 * Multiplies the quoficient of the token's weights (which stay at most 1).
+	 *
+	 * @param quoficient double representing the quoficient
+	 */
+	public void adjust(double quoficient) {
+		this.quoficient *= quoficient;
+	}
+
+	/**
+	 * Negates the token: its valence is flipped (see {@link AffectAccumulator#flipValence()}),
+	 * once however many rules negate it.
+	 */
+	public void negate() {
+		negated = true;
+	}
+}
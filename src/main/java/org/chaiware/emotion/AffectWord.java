@@ -18,29 +18,30 @@ import java.util.StringJoiner;
  * <li>Disgust weight
  * <li>Surprise weight
  * </ul>
+ * <p>
+ * Instances are immutable and shared by all analyses, the adjustments an analysis
+ * makes to the weights of a word are kept in its {@link AffectAccumulator}.
  */
 public class AffectWord {
 
-	private String word;
-
-	private double generalWeight = 0.0;
-	private double generalValence = 0.0;
-	private double happinessWeight = 0.0;
-	private double sadnessWeight = 0.0;
-	private double angerWeight = 0.0;
-	private double fearWeight = 0.0;
-	private double disgustWeight = 0.0;
-	private double surpriseWeight = 0.0;
+	private final String word;
 
-	private boolean startsWithEmoticon = false;
+	private final double generalWeight;
+	private final double generalValence;
+	private final double happinessWeight;
+	private final double sadnessWeight;
+	private final double angerWeight;
+	private final double fearWeight;
+	private final double disgustWeight;
+	private final double surpriseWeight;
 
 	/**
-	 * Class constructor which sets the affect word
+	 * Class constructor which sets the affect word, with no emotional weights
 	 * 
 	 * @param word String representing the word
 	 */
 	public AffectWord(String word) {
-		this.word = word;
+		this(word, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0);
 	}
 
 	/**
@@ -102,86 +103,6 @@ public class AffectWord {
 		this.generalValence = getValenceSum();
 	}
 
-	/**
-	 * Adjusts weights by the certain quoficient.
-	 * 
-	 * @param quoficient double representing the quoficient for adjusting the weights
-	 */
-
-	public void adjustWeights(double quoficient) {
-		this.generalWeight = generalWeight * quoficient;
-		this.happinessWeight = happinessWeight * quoficient;
-		this.sadnessWeight = sadnessWeight * quoficient;
-		this.angerWeight = angerWeight * quoficient;
-		this.fearWeight = fearWeight * quoficient;
-		this.disgustWeight = disgustWeight * quoficient;
-		this.surpriseWeight = surpriseWeight * quoficient;
-		normalise();
-	}
-
-	private void normalise() {
-		if (generalWeight > 1)
-			generalWeight = 1.0;
-		if (happinessWeight > 1)
-			happinessWeight = 1.0;
-		if (sadnessWeight > 1)
-			sadnessWeight = 1.0;
-		if (angerWeight > 1)
-			angerWeight = 1.0;
-		if (fearWeight > 1)
-			fearWeight = 1.0;
-		if (disgustWeight > 1)
-			disgustWeight = 1.0;
-		if (surpriseWeight > 1)
-			surpriseWeight = 1.0;
-	}
-
-	/**
-	 * Flips valence of the word -- calculates change from postive to negative emotion.
-	 */
-	public void flipValence() {
-		generalValence = -generalValence;
-		double temp = happinessWeight;
-		happinessWeight = Math.max(Math.max(sadnessWeight, angerWeight), Math.max(fearWeight, disgustWeight));
-		sadnessWeight = temp;
-		angerWeight = temp / 2;
-		fearWeight = temp / 2;
-		disgustWeight = temp / 2;
-	}
-
-	/**
-	 * Makes duplicate of the object.
-	 * 
-	 * @return {@link AffectWord}, new duplicated object
-	 */
-	@Override
-	public AffectWord clone() {
-		AffectWord value = new AffectWord(word, generalWeight, happinessWeight,
-				sadnessWeight, angerWeight, fearWeight, disgustWeight, surpriseWeight);
-
-		value.setStartsWithEmoticon(startsWithEmoticon);
-		return value;
-	}
-
-	/**
-	 * Returns true if the word starts with the emoticon.
-	 * 
-	 * @return boolean (true if the word starts with the emoticon, false if not)
-	 */
-
-	public boolean startsWithEmoticon() {
-		return startsWithEmoticon;
-	}
-
-	/**
-	 * Sets does the word start with emoticon.
-	 * 
-	 * @param startsWithEmoticon boolean (true if the word starts with the emoticon, false if not)
-	 */
-	public void setStartsWithEmoticon(boolean startsWithEmoticon) {
-		this.startsWithEmoticon = startsWithEmoticon;
-	}
-
 	/**
 	 * Getter for the anger weight.
 	 * 
@@ -191,15 +112,6 @@ public class AffectWord {
 		return angerWeight;
 	}
 
-	/**
-	 * Getter for the anger weight.
-	 * 
-	 * @param angerWeight double which represents the anger weight
-	 */
-	public void setAngerWeight(double angerWeight) {
-		this.angerWeight = angerWeight;
-	}
-
 	/**
 	 * Getter for the disgust weight.
 	 * 
@@ -209,15 +121,6 @@ public class AffectWord {
 		return disgustWeight;
 	}
 
-	/**
-	 * Setter for the disgust weight.
-	 * 
-	 * @param disgustWeight double which represents the disgust weight
-	 */
-	public void setDisgustWeight(double disgustWeight) {
-		this.disgustWeight = disgustWeight;
-	}
-
 	/**
 	 * Getter for the fear weight.
 	 * 
@@ -227,15 +130,6 @@ public class AffectWord {
 		return fearWeight;
 	}
 
-	/**
-	 * Getter for the fear weight.
-	 * 
-	 * @param fearWeight double which represents the fear weight
-	 */
-	public void setFearWeight(double fearWeight) {
-		this.fearWeight = fearWeight;
-	}
-
 	/**
 	 * Getter for the happiness weight.
 	 * 
@@ -245,15 +139,6 @@ public class AffectWord {
 		return happinessWeight;
 	}
 
-	/**
-	 * Setter for the happiness weight.
-	 * 
-	 * @param happinessWeight double which represents the happiness weight
-	 */
-	public void setHappinessWeight(double happinessWeight) {
-		this.happinessWeight = happinessWeight;
-	}
-
 	/**
 	 * Getter for the sadness weight.
 	 * 
@@ -263,15 +148,6 @@ public class AffectWord {
 		return sadnessWeight;
 	}
 
-	/**
-	 * Setter for the sadness weight.
-	 * 
-	 * @param sadnessWeight double which represents the sadness weight
-	 */
-	public void setSadnessWeight(double sadnessWeight) {
-		this.sadnessWeight = sadnessWeight;
-	}
-
 	/**
 	 * Getter for the surprise weight.
 	 * 
@@ -281,15 +157,6 @@ public class AffectWord {
 		return surpriseWeight;
 	}
 
-	/**
-	 * Setter for the surprise weight.
-	 * 
-	 * @param surpriseWeight double which represents the surprise weight
-	 */
-	public void setSurpriseWeight(double surpriseWeight) {
-		this.surpriseWeight = surpriseWeight;
-	}
-
 	/**
 	 * Getter for the word.
 	 * 
@@ -308,15 +175,6 @@ public class AffectWord {
 		return generalWeight;
 	}
 
-	/**
-	 * Setter for the general weight.
-	 * 
-	 * @param generalWeight double which represents the general weight
-	 */
-	public void setGeneralWeight(double generalWeight) {
-		this.generalWeight = generalWeight;
-	}
-
 	/**
 	 * Getter for the general valence.
 	 * 
@@ -326,15 +184,6 @@ public class AffectWord {
 		return generalValence;
 	}
 
-	/**
-	 * Setter for the general valence
-	 * 
-	 * @param generalValence double which represents the general valence
-	 */
-	public void setGeneralValence(int generalValence) {
-		this.generalValence = generalValence;
-	}
-
 	/**
 	 * Gets the boolean value which determines if a word has specific
 	 * emotional weight for emotion types defined by Ekman: happiness, sadness,
@@ -0,0 +1,85 @@
+package org.chaiware.emotion;
+
+import org.chaiware.emotion.util.EmoticonMatch;
+import org.chaiware.emotion.util.SentenceFeatures;
+import org.chaiware.emotion.util.TextTokenizer;
+
+/**
+ * Reusable scratch state of an analysis: the tokenizer, the features of the sentence, the running
+ * weights and the emoticon match which {@link Empathyscope} needs, so that analysing a text with
+ * {@link Empathyscope#analyse(CharSequence, AnalysisContext)} creates no object once the
+ * context has grown to the size of the texts (only non ASCII text still goes through the JDK's
+ * {@link java.text.BreakIterator}, which allocates).
+ * <p>
+ * After an analysis, the context holds the result, readable with its getters or turned into an
+ * {@link EmotionalState} with {@link #toEmotionalState(String)}.
+ * <p>
+ * A context is not thread safe: each thread should use its own ({@link Empathyscope#feel(String)}
+ * uses one per thread), and it must not be used by another analysis before its result is read.
+ */
+public final class AnalysisContext {
+
+	final AffectAccumulator accumulator = new AffectAccumulator();
+	final TextTokenizer tokens = new TextTokenizer();
+	final SentenceFeatures features = new SentenceFeatures();
+	final EmoticonMatch emoticon = new EmoticonMatch();
+	final AffectToken token = new AffectToken();
+	private volatile HeuristicRules rules;
+
+	/**
+	 * Sets the heuristic rules of the analyses made with this context, e.g. the rules of a tenant,
+	 * instead of the rules of the {@link Empathyscope} (the results are then never cached).
+	 *
+	 * @param rules {@link HeuristicRules} to apply, or null (the default) for the rules of the {@link Empathyscope}
+	 */
+	public void setRules(HeuristicRules rules) {
+		this.rules = rules;
+	}
+
+	/**
+	 * Getter for the heuristic rules of the context, see {@link #setRules(HeuristicRules)}.
+	 *
+	 * @return {@link HeuristicRules}, or null if the rules of the {@link Empathyscope} apply
+	 */
+	public HeuristicRules getRules() {
+		return rules;
+	}
+
+	/**
+	 * Getter for the emotional valence of the last analysed text.
+	 *
+	 * @return int representing the valence (-1, 0 or 1)
+	 */
+	public int getValence() {
+		return accumulator.getValence();
+	}
+
+	/**
+	 * Getter for the general emotional weight of the last analysed text.
+	 *
+	 * @return double representing the general weight
+	 */
+	public double getGeneralWeight() {
+		return accumulator.getMaxGeneralWeight();
+	}
+
+	/**
+	 * Getter for the weight of the given emotion in the last analysed text.
+	 *
+	 * @param type {@link EmotionType} of the emotion
+	 * @return double representing the weight
+	 */
+	public double getWeight(EmotionType type) {
+		return accumulator.getMaxWeight(type);
+	}
+
+	/**
+	 * Creates the {@link EmotionalState} of the last analysed text.
+	 *
+	 * @param text {@link String} representing the text, or null if it is not kept
+	 * @return {@link EmotionalState} of the text
+	 */
+	public EmotionalState toEmotionalState(String text) {
+		return accumulator.toEmotionalState(text);
+	}
+}
@@ -0,0 +1,222 @@
+package org.chaiware.emotion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Emotional history of one conversation: the {@link EmotionalState} of its recent messages and
+ * rolling aggregates of all of them, so the mood of the conversation is known without walking a
+ * chain of states (see {@link EmotionalState#setPrevious(EmotionalState)}).
+ * <p>
+ * Only the last messages are kept, in a ring of fixed size, so a long running conversation
+ * retains a bounded amount of memory. Each message updates the aggregates in constant time:
+ * <ul>
+ * <li>an exponentially decayed average of each emotional weight (and of the general weight)
+ * <li>the valence, over the kept messages and over the whole conversation
+ * <li>the sum of each emotional weight over the kept messages, giving the dominant emotion
+ * </ul>
+ * <p>
+ * Thread safety: the methods are synchronized, messages can be added by one thread while
+ * others read the mood.
+ */
+public class Conversation {
+
+	private static final EmotionType[] TYPES = EmotionType.values();
+
+	private final EmotionalState[] recent;
+	private final double smoothing;
+	private int next;
+	private int size;
+	private long messageCount;
+
+	private final double[] averageWeights = new double[TYPES.length];
+	private double averageGeneralWeight;
+	private final double[] recentWeights = new double[TYPES.length];
+	private int recentValence;
+	private long totalValence;
+
+	/**
+	 * Class constructor which sets the number of kept messages, the decayed averages give
+	 * a message about the weight it has in an average of that many messages.
+	 *
+	 * @param capacity int representing the number of recent messages kept
+	 */
+	public Conversation(int capacity) {
+		this(capacity, 2.0 / (capacity + 1));
+	}
+
+	/**
+	 * Class constructor which sets the number of kept messages and the smoothing of the averages.
+	 *
+	 * @param capacity int representing the number of recent messages kept
+	 * @param smoothing double representing the weight of a new message in the decayed averages,
+	 *            between 0 (exclusive, the past never fades) and 1 (only the last message counts)
+	 */
+	public Conversation(int capacity, double smoothing) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Conversation capacity must be positive: " + capacity);
+		if (!(smoothing > 0) || (smoothing > 1))
+			throw new IllegalArgumentException("Smoothing must be in (0, 1]: " + smoothing);
+
+		recent = new EmotionalState[capacity];
+		this.smoothing = smoothing;
+	}
+
+	/**
+	 * Adds the state of the next message of the conversation, forgetting the oldest kept
+	 * message when the conversation is full.
+	 *
+	 * @param state {@link EmotionalState} of the message
+	 */
+	public synchronized void add(EmotionalState state) {
+		if (size == recent.length) {
+			EmotionalState oldest = recent[next];
+			for (int i = 0; i < TYPES.length; i++)
+				recentWeights[i] -= oldest.getWeight(TYPES[i]);
+			recentValence -= oldest.getValence();
+		} else {
+			size++;
+		}
+
+		recent[next] = state;
+		next = (next + 1) % recent.length;
+
+		for (int i = 0; i < TYPES.length; i++) {
+			double weight = state.getWeight(TYPES[i]);
+			recentWeights[i] += weight;
+			averageWeights[i] = (messageCount == 0) ? weight : averageWeights[i] + smoothing * (weight - averageWeights[i]);
+		}
+		averageGeneralWeight = (messageCount == 0) ? state.getGeneralWeight()
+				: averageGeneralWeight + smoothing * (state.getGeneralWeight() - averageGeneralWeight);
+		recentValence += state.getValence();
+		totalValence += state.getValence();
+		messageCount++;
+
+		// once per round of the ring, the sums are recomputed so rounding errors do not pile up
+		if (next == 0)
+			sumRecentWeights();
+	}
+
+	/**
+	 * Returns the mood of the conversation: the decayed averages of the weights, and the
+	 * valence of the kept messages.
+	 *
+	 * @return {@link EmotionalState} (without text) of the conversation
+	 */
+	public synchronized EmotionalState getMood() {
+		return new EmotionalState(null, averageWeights, averageGeneralWeight, Integer.signum(recentValence));
+	}
+
+	/**
+	 * Getter for the exponentially decayed average of the weight of the given type of emotion.
+	 *
+	 * @param type {@link EmotionType} of the emotion
+	 * @return double representing the average weight
+	 */
+	public synchronized double getAverageWeight(EmotionType type) {
+		return averageWeights[type.ordinal()];
+	}
+
+	/**
+	 * Getter for the exponentially decayed average of the general emotional weight.
+	 *
+	 * @return double representing the average general weight
+	 */
+	public synchronized double getAverageGeneralWeight() {
+		return averageGeneralWeight;
+	}
+
+	/**
+	 * Returns the emotion with the highest mean weight over the kept messages.
+	 *
+	 * @return {@link Emotion} with its mean weight (neutral if no kept message expresses an emotion)
+	 */
+	public synchronized Emotion getDominantEmotion() {
+		if (size == 0)
+			return new Emotion(0.0, EmotionType.NEUTRAL);
+
+		int dominant = EmotionType.NEUTRAL.ordinal();
+		for (int i = 0; i < TYPES.length; i++) {
+			if ((TYPES[i] != EmotionType.NEUTRAL) && (recentWeights[i] > 0)
+					&& ((dominant == EmotionType.NEUTRAL.ordinal()) || (recentWeights[i] > recentWeights[dominant])))
+				dominant = i;
+		}
+
+		return new Emotion(Math.max(0.0, recentWeights[dominant]) / size, TYPES[dominant]);
+	}
+
+	/**
+	 * Getter for the sum of the valences of the kept messages.
+	 *
+	 * @return int representing the valence sum (positive for a positive conversation)
+	 */
+	public synchronized int getRecentValence() {
+		return recentValence;
+	}
+
+	/**
+	 * Getter for the sum of the valences of all the messages of the conversation.
+	 *
+	 * @return long representing the valence sum
+	 */
+	public synchronized long getTotalValence() {
+		return totalValence;
+	}
+
+	/**
+	 * Returns the state of a kept message.
+	 *
+	 * @param index int representing the index of the message, 0 for the last one
+	 * @return {@link EmotionalState} of the message
+	 * @throws IndexOutOfBoundsException if the message is not kept
+	 */
+	public synchronized EmotionalState getRecent(int index) {
+		if ((index < 0) || (index >= size))
+			throw new IndexOutOfBoundsException("Index: " + index + ", kept messages: " + size);
+
+		return recent[(next - 1 - index + 2 * recent.length) % recent.length];
+	}
+
+	/**
+	 * Returns the states of the kept messages.
+	 *
+	 * @return {@link List} of the {@link EmotionalState} of the kept messages, the last one first
+	 */
+	public synchronized List<EmotionalState> getRecentStates() {
+		List<EmotionalState> value = new ArrayList<EmotionalState>(size);
+		for (int i = 0; i < size; i++)
+			value.add(getRecent(i));
+
+		return value;
+	}
+
+	/**
+	 * @return the number of kept messages
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * @return the maximum number of kept messages
+	 */
+	public int getCapacity() {
+		return recent.length;
+	}
+
+	/**
+	 * @return the number of messages added to the conversation
+	 */
+	public synchronized long getMessageCount() {
+		return messageCount;
+	}
+
+	private void sumRecentWeights() {
+		for (int i = 0; i < TYPES.length; i++) {
+			double sum = 0.0;
+			for (int k = 0; k < size; k++)
+				sum += recent[k].getWeight(TYPES[i]);
+			recentWeights[i] = sum;
+		}
+	}
+}
@@ -0,0 +1,369 @@
+package org.chaiware.emotion;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of the {@link EmotionalState} of texts, for traffic which repeats the same
+ * texts (greetings, canned replies...), see {@link Empathyscope#setCache(EmotionCache)}.
+ * <p>
+ * Texts are keyed on a normalized form with a stable 64 bit hash: leading and trailing spaces
+ * and new lines (the chunk separators of the tokenizer) are dropped, and runs of more than two
+ * of them count as two (the analysis only tells one separator from several). Other white
+ * space, like tabs or carriage returns, is kept. Texts longer than the maximum text length are
+ * not cached.
+ * <p>
+ * The cache is split in segments, each guarded by its own lock. A segment evicts its least
+ * recently used text, and only when the new text was asked for more often than that text
+ * (frequencies are estimated by a small count-min sketch, halved periodically so old
+ * popularity fades), so one-off texts do not push out the frequent ones.
+ * <p>
+ * The cached states are never handed out: each hit returns a new copy (with the text asked
+ * for), so the callers can not change what other callers get (e.g. the previous state).
+ */
+public class EmotionCache {
+
+	private static final int MAX_SEGMENTS = 16;
+	private static final int MIN_SEGMENT_SIZE = 16;
+
+	private final Segment[] segments;
+	private final int maximumTextLength;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Class constructor which sets the limits of the cache.
+	 *
+	 * @param maximumSize int representing the maximum number of cached texts
+	 * @param maximumTextLength int representing the maximum length of a cached (normalized) text
+	 */
+	public EmotionCache(int maximumSize, int maximumTextLength) {
+		if (maximumSize < 1)
+			throw new IllegalArgumentException("Cache size must be positive: " + maximumSize);
+
+		int count = Math.min(MAX_SEGMENTS, Integer.highestOneBit(Math.max(1, maximumSize / MIN_SEGMENT_SIZE)));
+		segments = new Segment[count];
+		for (int i = 0; i < count; i++)
+			segments[i] = new Segment((maximumSize + count - 1 - i) / count);
+		this.maximumTextLength = maximumTextLength;
+	}
+
+	/**
+	 * Returns a copy of the cached state of the text.
+	 *
+	 * @param text {@link String} representing the text
+	 * @return {@link EmotionalState} of the text, or null if it is not cached
+	 */
+	public EmotionalState get(String text) {
+		return get(text, text);
+	}
+
+	/**
+	 * Returns a copy of the cached state of the text, holding the given result text.
+	 *
+	 * @param text {@link String} representing the text
+	 * @param resultText {@link String} representing the text of the copy, or null to not keep it
+	 * @return {@link EmotionalState} of the text, or null if it is not cached
+	 */
+	EmotionalState get(String text, String resultText) {
+		if (!isCacheable(text))
+			return null;
+
+		long hash = hash(text);
+		EmotionalState value = segmentOf(hash).get(hash, text);
+		if (value == null) {
+			misses.increment();
+			return null;
+		}
+
+		hits.increment();
+		return value.copy(resultText);
+	}
+
+	/**
+	 * Caches (a copy of) the state of the text, unless the cache is full of texts asked for more often.
+	 * The copy holds no text: each hit gets the text asked for.
+	 *
+	 * @param text {@link String} representing the text
+	 * @param state {@link EmotionalState} of the text
+	 */
+	public void put(String text, EmotionalState state) {
+		if (!isCacheable(text))
+			return;
+
+		long hash = hash(text);
+		if (segmentOf(hash).put(hash, normalize(text), state.copy(null)))
+			evictions.increment();
+	}
+
+	/**
+	 * Removes the cached state of the text, if any.
+	 *
+	 * @param text {@link String} representing the text
+	 */
+	void remove(String text) {
+		if (!isCacheable(text))
+			return;
+
+		long hash = hash(text);
+		segmentOf(hash).remove(hash, text);
+	}
+
+	/**
+	 * Removes all the cached texts (the counters are kept).
+	 */
+	public void clear() {
+		for (Segment segment : segments)
+			segment.clear();
+	}
+
+	/**
+	 * @return the number of cached texts
+	 */
+	public int size() {
+		int value = 0;
+		for (Segment segment : segments)
+			value += segment.size();
+
+		return value;
+	}
+
+	/**
+	 * @return the number of lookups which found the text
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the number of lookups which did not find the text
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the number of texts removed to make room for others
+	 */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Stable 64 bit hash (FNV-1a, finished by a 64 bit mix) of the normalized form of the text.
+	 *
+	 * @param text {@link CharSequence} representing the text
+	 * @return long representing the hash
+	 */
+	public static long hash(CharSequence text) {
+		int start = normalizedStart(text);
+		int end = normalizedEnd(text, start);
+		long h = 0xCBF29CE484222325L;
+		int spaces = 0;
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			spaces = isSeparator(c) ? spaces + 1 : 0;
+			if (spaces <= 2)
+				h = (h ^ c) * 0x100000001B3L;
+		}
+
+		h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+		h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return h ^ (h >>> 33);
+	}
+
+	/**
+	 * Returns the normalized form of the text (see the class description).
+	 *
+	 * @param text {@link CharSequence} representing the text
+	 * @return {@link String} representing the normalized text
+	 */
+	public static String normalize(CharSequence text) {
+		int start = normalizedStart(text);
+		int end = normalizedEnd(text, start);
+		StringBuilder value = new StringBuilder(end - start);
+		int spaces = 0;
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			spaces = isSeparator(c) ? spaces + 1 : 0;
+			if (spaces <= 2)
+				value.append(c);
+		}
+
+		return value.toString();
+	}
+
+	/** Compares the normalized key with the normalized form of the text, without creating it */
+	private static boolean matches(String key, CharSequence text) {
+		int start = normalizedStart(text);
+		int end = normalizedEnd(text, start);
+		int k = 0;
+		int spaces = 0;
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			spaces = isSeparator(c) ? spaces + 1 : 0;
+			if (spaces <= 2) {
+				if (k == key.length() || key.charAt(k) != c)
+					return false;
+				k++;
+			}
+		}
+
+		return k == key.length();
+	}
+
+	/** The chunk separators of the tokenizer, other white space is read by the analysis */
+	private static boolean isSeparator(char c) {
+		return c == ' ' || c == '\n';
+	}
+
+	private static int normalizedStart(CharSequence text) {
+		int start = 0;
+		while (start < text.length() && isSeparator(text.charAt(start)))
+			start++;
+
+		return start;
+	}
+
+	private static int normalizedEnd(CharSequence text, int start) {
+		int end = text.length();
+		while (end > start && isSeparator(text.charAt(end - 1)))
+			end--;
+
+		return end;
+	}
+
+	/** The trimmed length bounds the normalized length, texts of extra separators are just not cached */
+	private boolean isCacheable(String text) {
+		int start = normalizedStart(text);
+		return normalizedEnd(text, start) - start <= maximumTextLength;
+	}
+
+	private Segment segmentOf(long hash) {
+		return segments[(int) (hash >>> 32) & (segments.length - 1)];
+	}
+
+	/** A part of the cache, with its own lock, entries in access order and frequency sketch */
+	private static final class Segment {
+
+		private final int capacity;
+		private final LinkedHashMap<Long, Entry> entries;
+		private final FrequencySketch sketch;
+
+		Segment(int capacity) {
+			this.capacity = capacity;
+			entries = new LinkedHashMap<Long, Entry>(16, 0.75f, true);
+			sketch = new FrequencySketch(capacity);
+		}
+
+		synchronized EmotionalState get(long hash, String text) {
+			sketch.increment(hash);
+			Entry entry = entries.get(hash);
+			return (entry != null) && matches(entry.key, text) ? entry.state : null;
+		}
+
+		/** @return boolean, true if another text was evicted */
+		synchronized boolean put(long hash, String key, EmotionalState state) {
+			if ((entries.size() < capacity) || (entries.containsKey(hash))) {
+				entries.put(hash, new Entry(key, state));
+				return false;
+			}
+
+			Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+			long victim = eldest.next().getKey();
+			if (sketch.frequency(hash) <= sketch.frequency(victim))
+				return false;
+
+			eldest.remove();
+			entries.put(hash, new Entry(key, state));
+			return true;
+		}
+
+		synchronized void remove(long hash, String text) {
+			Entry entry = entries.get(hash);
+			if ((entry != null) && matches(entry.key, text))
+				entries.remove(hash);
+		}
+
+		synchronized void clear() {
+			entries.clear();
+		}
+
+		synchronized int size() {
+			return entries.size();
+		}
+	}
+
+	private static final class Entry {
+
+		final String key;
+		final EmotionalState state;
+
+		Entry(String key, EmotionalState state) {
+			this.key = key;
+			this.state = state;
+		}
+	}
+
+	/**
+	 * Count-min sketch of 4 bit counters (one per row, packed in longs): the frequency of a
+	 * hash is the smallest of its counters. All counters are halved once the sample size is reached.
+	 */
+	private static final class FrequencySketch {
+
+		private static final int ROWS = 4;
+		private static final long[] SEEDS = { 0x97CB3127E4D1B1F3L, 0xC6A4A7935BD1E995L, 0x9E3779B97F4A7C15L, 0xBF58476D1CE4E5B9L };
+
+		private final long[] table;
+		private final int mask;
+		private final int sampleSize;
+		private int additions;
+
+		/** About 16 counters per row for each cached text */
+		FrequencySketch(int capacity) {
+			int counters = Integer.highestOneBit(Math.max(capacity, MIN_SEGMENT_SIZE) * 16 - 1) << 1;
+			table = new long[counters / 16 * ROWS];
+			mask = counters - 1;
+			sampleSize = 10 * Math.max(capacity, MIN_SEGMENT_SIZE);
+		}
+
+		void increment(long hash) {
+			for (int row = 0; row < ROWS; row++) {
+				int counter = counter(hash, row);
+				int slot = slot(counter, row);
+				int shift = (counter & 15) << 2;
+				if (((table[slot] >>> shift) & 15) < 15)
+					table[slot] += 1L << shift;
+			}
+
+			if (++additions == sampleSize) {
+				for (int i = 0; i < table.length; i++)
+					table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+				additions /= 2;
+			}
+		}
+
+		int frequency(long hash) {
+			int value = 15;
+			for (int row = 0; row < ROWS; row++) {
+				int counter = counter(hash, row);
+				value = Math.min(value, (int) ((table[slot(counter, row)] >>> ((counter & 15) << 2)) & 15));
+			}
+
+			return value;
+		}
+
+		private int counter(long hash, int row) {
+			long h = (hash ^ SEEDS[row]) * SEEDS[(row + 1) % ROWS];
+			return (int) (h >>> 32) & mask;
+		}
+
+		private int slot(int counter, int row) {
+			return row * (table.length / ROWS) + (counter >>> 4);
+		}
+	}
+}
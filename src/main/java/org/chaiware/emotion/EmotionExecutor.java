@@ -0,0 +1,237 @@
+package org.chaiware.emotion;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded executor of asynchronous analyses: {@link #feel(String)} returns at once with a
+ * {@link CompletableFuture} of the {@link EmotionalState}, which a pool of worker threads
+ * completes (each worker reuses its own {@link AnalysisContext}).
+ * <p>
+ * At most the number of threads plus the queue capacity of analyses are pending (queued or
+ * running) at a time, so the texts held by the executor are bounded however bursty the traffic
+ * is. When that limit is reached the {@link Backpressure} policy decides what a new analysis
+ * does: fail, run on the calling thread, or wait for room up to a timeout.
+ * <p>
+ * Cancelling a future of an analysis which is still queued removes it from the queue (and frees
+ * its room), cancelling one which is running discards its result.
+ */
+public class EmotionExecutor implements AutoCloseable {
+
+	/** What {@link EmotionExecutor#feel(String)} does when the executor is full */
+	public enum Backpressure {
+		/** The future fails at once with a {@link RejectedExecutionException} */
+		REJECT,
+		/** The analysis runs on the calling thread, the future is completed when it returns */
+		CALLER_RUNS,
+		/** The calling thread waits for room up to the timeout, then the future fails as with {@link #REJECT} */
+		WAIT
+	}
+
+	private static final AtomicInteger executors = new AtomicInteger();
+
+	private final Empathyscope empathyscope;
+	private final ThreadPoolExecutor executor;
+	private final Semaphore permits;
+	private final int capacity;
+	private final Backpressure backpressure;
+	private final long timeoutNanos;
+
+	/**
+	 * Class constructor which sets the limits of the executor, analysing with the Singleton
+	 * {@link Empathyscope} (loaded by the first analysis if it was not preloaded).
+	 *
+	 * @param threads int representing the number of worker threads
+	 * @param queueCapacity int representing the maximum number of queued analyses
+	 * @param backpressure {@link Backpressure} policy of the analyses which find the executor full
+	 * @param timeout long representing the longest wait for room of the {@link Backpressure#WAIT} policy
+	 * @param unit {@link TimeUnit} of the timeout
+	 */
+	public EmotionExecutor(int threads, int queueCapacity, Backpressure backpressure, long timeout, TimeUnit unit) {
+		this(null, threads, queueCapacity, backpressure, timeout, unit);
+	}
+
+	/**
+	 * Class constructor which sets the {@link Empathyscope} to analyse with (e.g. one with a cache
+	 * or its own rules) and the limits of the executor.
+	 *
+	 * @param empathyscope {@link Empathyscope} to analyse with, or null for the Singleton instance
+	 * @param threads int representing the number of worker threads
+	 * @param queueCapacity int representing the maximum number of queued analyses
+	 * @param backpressure {@link Backpressure} policy of the analyses which find the executor full
+	 * @param timeout long representing the longest wait for room of the {@link Backpressure#WAIT} policy
+	 * @param unit {@link TimeUnit} of the timeout
+	 */
+	public EmotionExecutor(Empathyscope empathyscope, int threads, int queueCapacity, Backpressure backpressure,
+			long timeout, TimeUnit unit) {
+		if (threads < 1)
+			throw new IllegalArgumentException("Number of threads must be positive: " + threads);
+		if (queueCapacity < 0)
+			throw new IllegalArgumentException("Queue capacity must not be negative: " + queueCapacity);
+		if (backpressure == null)
+			throw new IllegalArgumentException("Backpressure must not be null");
+		if (timeout < 0)
+			throw new IllegalArgumentException("Timeout must not be negative: " + timeout);
+
+		this.empathyscope = empathyscope;
+		this.backpressure = backpressure;
+		timeoutNanos = unit.toNanos(timeout);
+		capacity = threads + queueCapacity;
+		permits = new Semaphore(capacity);
+
+		// the permits bound the pending analyses, so the queue itself never fills up
+		final String prefix = "Empathyscope-async-" + executors.incrementAndGet() + "-";
+		executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+					private final AtomicInteger count = new AtomicInteger();
+
+					@Override
+					public Thread newThread(Runnable runnable) {
+						Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+	}
+
+	/**
+	 * Starts the analysis of the text, see {@link Empathyscope#feel(String)}. The calling thread
+	 * only waits under the {@link Backpressure#CALLER_RUNS} and {@link Backpressure#WAIT} policies,
+	 * when the executor is full.
+	 *
+	 * @param text String representing the text to be analysed
+	 * @return {@link CompletableFuture} completed with the {@link EmotionalState} of the text, or
+	 *         with the failure of the analysis, or with a {@link RejectedExecutionException} when
+	 *         the executor is full or shut down
+	 */
+	public CompletableFuture<EmotionalState> feel(String text) {
+		Analysis analysis = new Analysis(text);
+		if (executor.isShutdown())
+			return analysis.reject("Emotion executor is shut down", null);
+
+		try {
+			if (backpressure == Backpressure.WAIT)
+				analysis.queued = permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+			else
+				analysis.queued = permits.tryAcquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return analysis.reject("Interrupted while waiting for the emotion executor", e);
+		}
+
+		if (!analysis.queued) {
+			if (backpressure == Backpressure.CALLER_RUNS)
+				analysis.run();
+			else
+				analysis.reject("Emotion executor is full (" + capacity + " pending analyses)", null);
+			return analysis;
+		}
+
+		try {
+			executor.execute(analysis);
+		} catch (RejectedExecutionException e) {
+			permits.release();
+			analysis.reject("Emotion executor is shut down", e);
+		}
+
+		return analysis;
+	}
+
+	/**
+	 * @return the number of analyses which are queued or running
+	 */
+	public int getPending() {
+		return capacity - permits.availablePermits();
+	}
+
+	/**
+	 * @return the maximum number of analyses which are queued or running
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return {@link Backpressure} policy of the analyses which find the executor full
+	 */
+	public Backpressure getBackpressure() {
+		return backpressure;
+	}
+
+	/**
+	 * Stops accepting analyses, the pending ones are still completed.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	/**
+	 * Waits for the pending analyses after a {@link #shutdown()}.
+	 *
+	 * @param timeout long representing the longest wait
+	 * @param unit {@link TimeUnit} of the timeout
+	 * @return boolean, true if all the analyses are done, false if the timeout elapsed first
+	 * @throws InterruptedException
+	 */
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return executor.awaitTermination(timeout, unit);
+	}
+
+	/**
+	 * Same as {@link #shutdown()}.
+	 */
+	@Override
+	public void close() {
+		shutdown();
+	}
+
+	/** The future of an analysis, and the task which completes it */
+	private class Analysis extends CompletableFuture<EmotionalState> implements Runnable {
+
+		private final String text;
+		/** true when the analysis holds a permit, i.e. it runs on a worker */
+		private volatile boolean queued;
+
+		private Analysis(String text) {
+			this.text = text;
+		}
+
+		@Override
+		public void run() {
+			try {
+				if (!isDone()) {
+					Empathyscope value = (empathyscope != null) ? empathyscope : Empathyscope.getInstance();
+					complete(value.feel(text));
+				}
+			} catch (Throwable e) {
+				// an error (e.g. of the first getInstance()) must complete the future too, or its waiters hang
+				completeExceptionally(e);
+				if (e instanceof Error)
+					throw (Error) e;
+			} finally {
+				if (queued)
+					permits.release();
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			// a task removed from the queue never runs, so its permit is released here
+			if (cancelled && queued && executor.remove(this))
+				permits.release();
+			return cancelled;
+		}
+
+		private Analysis reject(String message, Throwable cause) {
+			completeExceptionally(new RejectedExecutionException(message, cause));
+			return this;
+		}
+	}
+}
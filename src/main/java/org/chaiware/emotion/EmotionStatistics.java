@@ -0,0 +1,170 @@
+package org.chaiware.emotion;
+
+/**
+ * Statistics of the messages of one time window (see {@link EmotionWindow}): their count, and the
+ * mean, maximum and quantiles of each Ekman emotion's weight, and the distribution of the valence.
+ * <p>
+ * Quantiles are estimated from a histogram of {@value #BINS} bins over the weights (0 to 1),
+ * so they are precise to a bin (interpolated linearly inside it).
+ * <p>
+ * Statistics are immutable values.
+ */
+public class EmotionStatistics {
+
+	/** Number of bins of the histograms of the weights */
+	public static final int BINS = 50;
+
+	private static final EmotionType[] TYPES = EmotionType.values();
+
+	/** Number of Ekman emotions, the types which come before {@link EmotionType#NEUTRAL} */
+	static final int EMOTIONS = EmotionType.NEUTRAL.ordinal();
+
+	private final long start;
+	private final long end;
+	private final long count;
+	private final double[] sums;
+	private final double[] maxima;
+	private final int[] histograms;
+	private final long[] valences;
+
+	/**
+	 * Class constructor which sets the statistics (the arrays are owned by the new object).
+	 *
+	 * @param start long representing the start of the window (inclusive, in milliseconds)
+	 * @param end long representing the end of the window (exclusive, in milliseconds)
+	 * @param count long representing the number of messages
+	 * @param sums array of the sum of the weights, per Ekman emotion
+	 * @param maxima array of the maximum of the weights, per Ekman emotion
+	 * @param histograms array of the histograms of the weights, {@link #BINS} bins per Ekman emotion
+	 * @param valences array of the number of negative, neutral and positive messages
+	 */
+	EmotionStatistics(long start, long end, long count, double[] sums, double[] maxima, int[] histograms, long[] valences) {
+		this.start = start;
+		this.end = end;
+		this.count = count;
+		this.sums = sums;
+		this.maxima = maxima;
+		this.histograms = histograms;
+		this.valences = valences;
+	}
+
+	/**
+	 * @return the start of the window (inclusive, in milliseconds)
+	 */
+	public long getStart() {
+		return start;
+	}
+
+	/**
+	 * @return the end of the window (exclusive, in milliseconds)
+	 */
+	public long getEnd() {
+		return end;
+	}
+
+	/**
+	 * @return the number of messages in the window
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Getter for the mean weight of the given emotion.
+	 *
+	 * @param type {@link EmotionType} of an Ekman emotion
+	 * @return double representing the mean weight (0 if the window has no message)
+	 */
+	public double getMean(EmotionType type) {
+		return (count == 0) ? 0.0 : sums[index(type)] / count;
+	}
+
+	/**
+	 * Getter for the maximum weight of the given emotion.
+	 *
+	 * @param type {@link EmotionType} of an Ekman emotion
+	 * @return double representing the maximum weight
+	 */
+	public double getMax(EmotionType type) {
+		return maxima[index(type)];
+	}
+
+	/**
+	 * Returns the estimated quantile of the weights of the given emotion.
+	 *
+	 * @param type {@link EmotionType} of an Ekman emotion
+	 * @param quantile double representing the quantile, between 0 and 1 (e.g. 0.5 for the median)
+	 * @return double representing the weight at the quantile
+	 */
+	public double getQuantile(EmotionType type, double quantile) {
+		if ((quantile < 0) || (quantile > 1))
+			throw new IllegalArgumentException("Quantile must be in [0, 1]: " + quantile);
+		if (count == 0)
+			return 0.0;
+
+		int offset = index(type) * BINS;
+		double rank = quantile * count;
+		long seen = 0;
+		for (int bin = 0; bin < BINS; bin++) {
+			int inBin = histograms[offset + bin];
+			if ((inBin > 0) && (seen + inBin >= rank)) {
+				double value = (bin + (rank - seen) / inBin) / BINS;
+				return Math.min(value, maxima[index(type)]);
+			}
+			seen += inBin;
+		}
+
+		return maxima[index(type)];
+	}
+
+	/**
+	 * @return the number of messages with a negative valence
+	 */
+	public long getNegativeCount() {
+		return valences[0];
+	}
+
+	/**
+	 * @return the number of messages with a neutral valence
+	 */
+	public long getNeutralCount() {
+		return valences[1];
+	}
+
+	/**
+	 * @return the number of messages with a positive valence
+	 */
+	public long getPositiveCount() {
+		return valences[2];
+	}
+
+	/**
+	 * Returns a string representation of the object.
+	 *
+	 * @return a string representation of the object
+	 */
+	@Override
+	public String toString() {
+		StringBuilder value = new StringBuilder();
+		value.append("Window: [").append(start).append(", ").append(end).append("), count: ").append(count);
+		for (int i = 0; i < EMOTIONS; i++) {
+			EmotionType type = TYPES[i];
+			value.append(", ").append(type).append(" mean: ").append(getMean(type)).append(" max: ").append(getMax(type));
+		}
+		value.append(", valence -/0/+: ").append(valences[0]).append('/').append(valences[1]).append('/').append(valences[2]);
+
+		return value.toString();
+	}
+
+	/** The bin of a weight, weights of 1 (and above) fall in the last bin */
+	static int bin(double weight) {
+		return Math.max(0, Math.min(BINS - 1, (int) (weight * BINS)));
+	}
+
+	private static int index(EmotionType type) {
+		if (type == EmotionType.NEUTRAL)
+			throw new IllegalArgumentException("Statistics are kept for the Ekman emotions only");
+
+		return type.ordinal();
+	}
+}
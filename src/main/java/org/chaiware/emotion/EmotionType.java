@@ -0,0 +1,25 @@
+package org.chaiware.emotion;
+
+/**
+ * Types of the emotions: the ones defined by Ekman (happiness, sadness, fear, anger, disgust,
+ * surprise), and neutral for texts with none of them.
+ * <p>
+ * The ordinal of a type is its index in the weights of an {@link EmotionalState}.
+ */
+public enum EmotionType {
+
+	HAPPINESS(0),
+	SADNESS(1),
+	FEAR(3),
+	ANGER(2),
+	DISGUST(4),
+	SURPRISE(5),
+	NEUTRAL(6);
+
+	/** Rank of the type among emotions of even weights, anger comes before fear as it always did */
+	final int precedence;
+
+	EmotionType(int precedence) {
+		this.precedence = precedence;
+	}
+}
@@ -0,0 +1,238 @@
+package org.chaiware.emotion;
+
+import java.util.Arrays;
+
+/**
+ * Time windowed statistics of a stream of timestamped messages (e.g. per minute or per hour),
+ * fed with the {@link EmotionalState} of each message as {@link Empathyscope} returns it.
+ * The {@link EmotionStatistics} of each window are passed to a {@link WindowListener} once the
+ * window is closed.
+ * <p>
+ * Windows are tumbling (their size is their slide) or sliding (a window of the given size
+ * ends at every slide). Time is cut in panes of the slide's length, and the statistics of each
+ * pane are updated incrementally in primitive ring buffers, so the memory used is constant: it
+ * depends on the number of panes of a window and of the allowed lateness, not on the number of
+ * messages.
+ * <p>
+ * Messages may arrive out of order: a window is closed when the watermark (the latest timestamp
+ * seen, minus the allowed lateness) passes its end. Messages older than that for all their
+ * windows are too late, they are dropped and counted (see {@link #getLateCount()}).
+ * <p>
+ * Thread safety: the methods are synchronized.
+ */
+public class EmotionWindow {
+
+	private static final EmotionType[] TYPES = EmotionType.values();
+	private static final int EMOTIONS = EmotionStatistics.EMOTIONS;
+	private static final int BINS = EmotionStatistics.BINS;
+	private static final long NONE = Long.MIN_VALUE;
+
+	private final long size;
+	private final long slide;
+	private final long allowedLateness;
+	private final int panesPerWindow;
+	private final WindowListener listener;
+
+	// the ring of panes: pane p is in slot p % panes
+	private final int panes;
+	private final long[] paneIds;
+	private final long[] counts;
+	private final double[] sums;
+	private final double[] maxima;
+	private final int[] histograms;
+	private final long[] valences;
+
+	private long maxTimestamp = NONE;
+	private long closedPane = NONE;
+	private long lastDataPane = NONE;
+	private long lateCount;
+
+	/**
+	 * Class constructor which sets the windows.
+	 *
+	 * @param size long representing the size of a window, in milliseconds
+	 * @param slide long representing the time between the ends of two windows, in milliseconds
+	 *            (size must be a multiple of it, equal to it for tumbling windows)
+	 * @param allowedLateness long representing how late (in milliseconds) a message may arrive
+	 *            after a later one, and still be counted
+	 * @param listener {@link WindowListener} which receives the statistics of each closed window
+	 */
+	public EmotionWindow(long size, long slide, long allowedLateness, WindowListener listener) {
+		if ((slide <= 0) || (size < slide) || (size % slide != 0))
+			throw new IllegalArgumentException("Window size " + size + " must be a positive multiple of the slide " + slide);
+		if (allowedLateness < 0)
+			throw new IllegalArgumentException("Allowed lateness must not be negative: " + allowedLateness);
+
+		this.size = size;
+		this.slide = slide;
+		this.allowedLateness = allowedLateness;
+		this.listener = listener;
+		panesPerWindow = (int) (size / slide);
+		panes = panesPerWindow + (int) ((allowedLateness + slide - 1) / slide) + 2;
+
+		paneIds = new long[panes];
+		Arrays.fill(paneIds, NONE);
+		counts = new long[panes];
+		sums = new double[panes * EMOTIONS];
+		maxima = new double[panes * EMOTIONS];
+		histograms = new int[panes * EMOTIONS * BINS];
+		valences = new long[panes * 3];
+	}
+
+	/**
+	 * Creates tumbling windows: consecutive windows of the given size which do not overlap.
+	 *
+	 * @param size long representing the size of a window, in milliseconds
+	 * @param allowedLateness long representing how late (in milliseconds) a message may arrive
+	 * @param listener {@link WindowListener} which receives the statistics of each closed window
+	 * @return {@link EmotionWindow}
+	 */
+	public static EmotionWindow tumbling(long size, long allowedLateness, WindowListener listener) {
+		return new EmotionWindow(size, size, allowedLateness, listener);
+	}
+
+	/**
+	 * Creates sliding windows: windows of the given size, one ending at every slide.
+	 *
+	 * @param size long representing the size of a window, in milliseconds
+	 * @param slide long representing the time between the ends of two windows, in milliseconds
+	 * @param allowedLateness long representing how late (in milliseconds) a message may arrive
+	 * @param listener {@link WindowListener} which receives the statistics of each closed window
+	 * @return {@link EmotionWindow}
+	 */
+	public static EmotionWindow sliding(long size, long slide, long allowedLateness, WindowListener listener) {
+		return new EmotionWindow(size, slide, allowedLateness, listener);
+	}
+
+	/**
+	 * Adds a message, closing the windows which the watermark passes.
+	 *
+	 * @param timestamp long representing the time of the message, in milliseconds
+	 * @param state {@link EmotionalState} of the message
+	 * @return boolean, false if the message was too late to be counted
+	 */
+	public synchronized boolean add(long timestamp, EmotionalState state) {
+		if ((maxTimestamp == NONE) || (timestamp > maxTimestamp)) {
+			maxTimestamp = timestamp;
+			closeWindows(Math.floorDiv(maxTimestamp - allowedLateness, slide));
+		}
+
+		long pane = Math.floorDiv(timestamp, slide);
+		if (pane + panesPerWindow - 1 <= closedPane) {
+			lateCount++;
+			return false;
+		}
+
+		int slot = slot(pane);
+		if (paneIds[slot] != pane)
+			clearPane(slot, pane);
+
+		counts[slot]++;
+		for (int i = 0; i < EMOTIONS; i++) {
+			double weight = state.getWeight(TYPES[i]);
+			int index = slot * EMOTIONS + i;
+			sums[index] += weight;
+			maxima[index] = Math.max(maxima[index], weight);
+			histograms[index * BINS + EmotionStatistics.bin(weight)]++;
+		}
+		valences[slot * 3 + Integer.signum(state.getValence()) + 1]++;
+		lastDataPane = (lastDataPane == NONE) ? pane : Math.max(lastDataPane, pane);
+
+		return true;
+	}
+
+	/**
+	 * Closes all the windows which hold messages, e.g. at the end of the stream.
+	 */
+	public synchronized void flush() {
+		if (lastDataPane != NONE)
+			closeWindows(lastDataPane + panesPerWindow);
+	}
+
+	/**
+	 * @return the number of messages dropped because they were too late
+	 */
+	public synchronized long getLateCount() {
+		return lateCount;
+	}
+
+	/**
+	 * @return the size of a window, in milliseconds
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * @return the time between the ends of two windows, in milliseconds
+	 */
+	public long getSlide() {
+		return slide;
+	}
+
+	/**
+	 * Closes the windows which end before the given pane, the windows with no message are skipped.
+	 *
+	 * @param watermarkPane long representing the pane of the watermark
+	 */
+	private void closeWindows(long watermarkPane) {
+		// before the first message there is nothing to close
+		if (closedPane == NONE) {
+			closedPane = watermarkPane - 1;
+			return;
+		}
+
+		long pane = closedPane;
+		while (pane + 1 < watermarkPane) {
+			pane++;
+			if ((lastDataPane == NONE) || (pane - panesPerWindow + 1 > lastDataPane)) {
+				// no later window holds a message
+				pane = watermarkPane - 1;
+				break;
+			}
+			closeWindow(pane);
+		}
+		closedPane = pane;
+	}
+
+	/** Merges the panes of the window which ends with the given pane, and passes its statistics to the listener */
+	private void closeWindow(long lastPane) {
+		long count = 0;
+		double[] windowSums = new double[EMOTIONS];
+		double[] windowMaxima = new double[EMOTIONS];
+		int[] windowHistograms = new int[EMOTIONS * BINS];
+		long[] windowValences = new long[3];
+		for (long pane = lastPane - panesPerWindow + 1; pane <= lastPane; pane++) {
+			int slot = slot(pane);
+			if (paneIds[slot] != pane)
+				continue;
+
+			count += counts[slot];
+			for (int i = 0; i < EMOTIONS; i++) {
+				windowSums[i] += sums[slot * EMOTIONS + i];
+				windowMaxima[i] = Math.max(windowMaxima[i], maxima[slot * EMOTIONS + i]);
+			}
+			for (int i = 0; i < EMOTIONS * BINS; i++)
+				windowHistograms[i] += histograms[slot * EMOTIONS * BINS + i];
+			for (int i = 0; i < 3; i++)
+				windowValences[i] += valences[slot * 3 + i];
+		}
+
+		if (count > 0)
+			listener.windowClosed(new EmotionStatistics((lastPane + 1) * slide - size, (lastPane + 1) * slide, count,
+					windowSums, windowMaxima, windowHistograms, windowValences));
+	}
+
+	private void clearPane(int slot, long pane) {
+		paneIds[slot] = pane;
+		counts[slot] = 0;
+		Arrays.fill(sums, slot * EMOTIONS, (slot + 1) * EMOTIONS, 0.0);
+		Arrays.fill(maxima, slot * EMOTIONS, (slot + 1) * EMOTIONS, 0.0);
+		Arrays.fill(histograms, slot * EMOTIONS * BINS, (slot + 1) * EMOTIONS * BINS, 0);
+		Arrays.fill(valences, slot * 3, (slot + 1) * 3, 0);
+	}
+
+	private int slot(long pane) {
+		return (int) Math.floorMod(pane, (long) panes);
+	}
+}
@@ -0,0 +1,74 @@
+package org.chaiware.emotion;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The {@link EmotionalState} of a part of a text (the whole document, a paragraph or a sentence)
+ * with its offsets, and the spans of its parts: a document is made of paragraphs, and a paragraph
+ * of sentences, see {@link Empathyscope#feelBreakdown(String)}.
+ * <p>
+ * The state of a span is computed from the states of its parts, so it is the state the whole
+ * span would get from {@link Empathyscope#feel(String)}.
+ */
+public class EmotionalSpan {
+
+	private final int start;
+	private final int end;
+	private final EmotionalState state;
+	private final List<EmotionalSpan> parts;
+
+	/**
+	 * Class constructor which sets the offsets, the state and the parts of the span.
+	 *
+	 * @param start int representing the offset of the span's first char
+	 * @param end int representing the offset after the span's last char
+	 * @param state {@link EmotionalState} of the span
+	 * @param parts {@link List} of the spans of the parts, in order (empty for a sentence)
+	 */
+	public EmotionalSpan(int start, int end, EmotionalState state, List<EmotionalSpan> parts) {
+		this.start = start;
+		this.end = end;
+		this.state = state;
+		this.parts = Collections.unmodifiableList(parts);
+	}
+
+	/**
+	 * @return the offset of the span's first char in the text
+	 */
+	public int getStart() {
+		return start;
+	}
+
+	/**
+	 * @return the offset after the span's last char in the text
+	 */
+	public int getEnd() {
+		return end;
+	}
+
+	/**
+	 * @return the {@link EmotionalState} of the span
+	 */
+	public EmotionalState getState() {
+		return state;
+	}
+
+	/**
+	 * @return unmodifiable {@link List} of the spans of the parts (paragraphs of a document,
+	 *         sentences of a paragraph, none for a sentence)
+	 */
+	public List<EmotionalSpan> getParts() {
+		return parts;
+	}
+
+	/**
+	 * Returns a string representation of the object.
+	 *
+	 * @return a string representation of the object
+	 */
+	@Override
+	public String toString() {
+		return "[" + start + ", " + end + "), parts: " + parts.size() + "\n" + state;
+	}
+}
@@ -12,7 +12,7 @@ import java.util.*;
  * <li>General valence (emotion is positive or negative)
  * <li>Six specific emotional weights, defined by Ekman's categories: happiness
  * weight, sadness weight, fear weight, anger weight, disgust weight, surprise
- * weight. These specific emotions are defined by the class {@link Emotion}.
+ * weight. These specific emotions are defined by {@link EmotionType}.
  * <li>Previous {@link EmotionalState} (so that whole emotional history of one
  * conversation can be accessed from the Processing applet ).
  * </ul>
@@ -20,15 +20,20 @@ import java.util.*;
  * Weights have values between 0 and 1 (0 for no emotion, 1 for full emotion,
  * 0.5 for the emotion of average intesity). Valence can be -1, 0, or 1
  * (negative, neutral, and positive emotion, respectively).
+ * <p>
+ * The weights are kept in one array indexed by {@link EmotionType}, so reading any of
+ * them is a single array access. The text is optional (null when it is not kept).
  * 
  */
 public class EmotionalState {
 
-	private String text;
-	private double generalWeight = 0.0;
-	private int valence = 0;
+	private static final EmotionType[] TYPES = EmotionType.values();
+
+	private final String text;
+	private final double generalWeight;
+	private final int valence;
+	private final double[] weights;
 	private EmotionalState previous;
-	private SortedSet<Emotion> emotions;
 
 
 	public EmotionalState() {
@@ -36,22 +41,23 @@ public class EmotionalState {
 	}
 
 	/**
-	 * Class constructor which sets the text.
+	 * Class constructor which sets the text, the state is neutral.
 	 * 
-	 * @param text String representing the text
+	 * @param text String representing the text, or null if it is not kept
 	 */
 	public EmotionalState(String text) {
-
 		this.text = text;
-		emotions = new TreeSet<Emotion>();
-		emotions.add(new Emotion(1.0, Emotion.NEUTRAL));
+		generalWeight = 0.0;
+		valence = 0;
+		weights = new double[TYPES.length];
+		weights[EmotionType.NEUTRAL.ordinal()] = 1.0;
 	}
 
 	/**
 	 * Class constructor which sets the text, general emotional weight, emotional
 	 * valence, and all of the emotional weights (in a form of a SortedSet).
 	 * 
-	 * @param text {@link String} representing the text
+	 * @param text {@link String} representing the text, or null if it is not kept
 	 * @param emotions {@link SortedSet} containing all of the specific Ekman emotional
 	 *            weights, defined by the {@link Emotion} class
 	 * @param generalWeight double representing the general emotional weight
@@ -60,54 +66,113 @@ public class EmotionalState {
 	public EmotionalState(String text, SortedSet<Emotion> emotions,
 			double generalWeight, int valence) {
 
-		this(text);
+		this(text, new double[TYPES.length], generalWeight, valence);
+		for (Emotion e : emotions)
+			weights[e.getType().ordinal()] = e.getWeight();
+	}
+
+	/**
+	 * Class constructor which sets the text, general emotional weight, emotional
+	 * valence, and all of the emotional weights (in a form of an array).
+	 * 
+	 * @param text {@link String} representing the text, or null if it is not kept
+	 * @param weights array of the emotional weights, indexed by the ordinal of their
+	 *            {@link EmotionType} (it is copied, missing weights are 0)
+	 * @param generalWeight double representing the general emotional weight
+	 * @param valence int representing the emotinal valence
+	 */
+	public EmotionalState(String text, double[] weights, double generalWeight, int valence) {
+		this.text = text;
+		this.generalWeight = generalWeight;
+		this.valence = valence;
+		this.weights = Arrays.copyOf(weights, TYPES.length);
+	}
+
+	/** Class constructor which takes the weights array as it is (see {@link #of(String, double[], double, int)}) */
+	private EmotionalState(double[] weights, String text, double generalWeight, int valence) {
+		this.text = text;
 		this.generalWeight = generalWeight;
 		this.valence = valence;
-		this.emotions = emotions;
+		this.weights = weights;
+	}
+
+	/**
+	 * Creates a state which owns the given weights array, instead of copying it.
+	 *
+	 * @param text {@link String} representing the text, or null if it is not kept
+	 * @param weights array of the emotional weights, one per {@link EmotionType}, not to be changed after
+	 * @param generalWeight double representing the general emotional weight
+	 * @param valence int representing the emotinal valence
+	 * @return {@link EmotionalState}
+	 */
+	static EmotionalState of(String text, double[] weights, double generalWeight, int valence) {
+		return new EmotionalState(weights, text, generalWeight, valence);
 	}
 
 	/**
-	 * Returns {@link Emotion} with the highest weight.
+	 * Returns {@link Emotion} with the highest weight. Of emotions of even weights the first in
+	 * the order happiness, sadness, anger, fear, disgust, surprise is returned. Weights which
+	 * differ by less than 0.01 are not even: the strictly highest one is returned.
 	 * 
-	 * @return Emotion with the highest weight
+	 * @return Emotion with the highest weight (neutral with weight 0 if there is no emotion)
 	 */
 	public Emotion getStrongestEmotion() {
-		return emotions.first();
+		int strongest = strongest(0);
+		if (strongest < 0)
+			return new Emotion(0.0, EmotionType.NEUTRAL);
+
+		return new Emotion(weights[strongest], TYPES[strongest]);
 	}
 
 	/**
-	 * Returns several emotions ({@link Emotion} instances) with the highest weight.
+	 * Returns several emotions ({@link Emotion} instances) with the highest weight, in the order
+	 * of {@link #getStrongestEmotion()}.
 	 * 
 	 * @param stop int representing the number of emotions which is to searched for
 	 * @return list of emotions ({@link Emotion} instances) with the highest weight
 	 */
 	public List<Emotion> getFirstStrongestEmotions(int stop) {
-		List<Emotion> value = new ArrayList();
-		for (Emotion e : emotions) {
-			if (stop <= 0) {
+		List<Emotion> value = new ArrayList<Emotion>(Math.max(0, Math.min(stop, TYPES.length)));
+		int taken = 0;
+		while (value.size() < stop) {
+			int strongest = strongest(taken);
+			if (strongest < 0)
 				break;
-			}
-			value.add(e);
-			stop--;
+
+			taken |= 1 << strongest;
+			value.add(new Emotion(weights[strongest], TYPES[strongest]));
 		}
 
 		return value;
 	}
 
+	/**
+	 * Getter for the {@link Emotion} of the given type.
+	 * 
+	 * @param type {@link EmotionType} of the emotion
+	 * @return {@link Emotion} of the type (with weight 0 if the text does not express it)
+	 */
+	public Emotion getEmotion(EmotionType type) {
+		return new Emotion(weights[type.ordinal()], type);
+	}
+
+	/**
+	 * Getter for the weight of the given type of emotion.
+	 * 
+	 * @param type {@link EmotionType} of the emotion
+	 * @return double representing the weight
+	 */
+	public double getWeight(EmotionType type) {
+		return weights[type.ordinal()];
+	}
+
 	/**
 	 * Getter for the {@link Emotion} of happiness.
 	 * 
 	 * @return {@link Emotion} of happiness
 	 */
 	public Emotion getHappiness() {
-		Emotion value = new Emotion(0.0, Emotion.HAPPINESS);
-		for (Emotion e : emotions) {
-			if (e.getType() == Emotion.HAPPINESS) {
-				value = e;
-			}
-		}
-
-		return value;
+		return getEmotion(EmotionType.HAPPINESS);
 	}
 
 	/**
@@ -116,7 +181,7 @@ public class EmotionalState {
 	 * @return double representing the happiness weight
 	 */
 	public double getHappinessWeight() {
-		return getHappiness().getWeight();
+		return weights[EmotionType.HAPPINESS.ordinal()];
 	}
 
 	/**
@@ -125,14 +190,7 @@ public class EmotionalState {
 	 * @return {@link Emotion} of sadness
 	 */
 	public Emotion getSadness() {
-		Emotion value = new Emotion(0.0, Emotion.SADNESS);
-		for (Emotion e : emotions) {
-			if (e.getType() == Emotion.SADNESS) {
-				value = e;
-			}
-		}
-
-		return value;
+		return getEmotion(EmotionType.SADNESS);
 	}
 
 	/**
@@ -141,7 +199,7 @@ public class EmotionalState {
 	 * @return double representing the sadness weight
 	 */
 	public double getSadnessWeight() {
-		return getSadness().getWeight();
+		return weights[EmotionType.SADNESS.ordinal()];
 	}
 
 	/**
@@ -150,14 +208,7 @@ public class EmotionalState {
 	 * @return {@link Emotion} of fear
 	 */
 	public Emotion getFear() {
-		Emotion value = new Emotion(0.0, Emotion.FEAR);
-		for (Emotion e : emotions) {
-			if (e.getType() == Emotion.FEAR) {
-				value = e;
-			}
-		}
-
-		return value;
+		return getEmotion(EmotionType.FEAR);
 	}
 
 	/**
@@ -166,7 +217,7 @@ public class EmotionalState {
 	 * @return double representing the fear weight
 	 */
 	public double getFearWeight() {
-		return getFear().getWeight();
+		return weights[EmotionType.FEAR.ordinal()];
 	}
 
 	/**
@@ -175,14 +226,7 @@ public class EmotionalState {
 	 * @return {@link Emotion} of anger
 	 */
 	public Emotion getAnger() {
-		Emotion value = new Emotion(0.0, Emotion.ANGER);
-		for (Emotion e : emotions) {
-			if (e.getType() == Emotion.ANGER) {
-				value = e;
-			}
-		}
-
-		return value;
+		return getEmotion(EmotionType.ANGER);
 	}
 
 	/**
@@ -191,7 +235,7 @@ public class EmotionalState {
 	 * @return double representing the anger weight
 	 */
 	public double getAngerWeight() {
-		return getAnger().getWeight();
+		return weights[EmotionType.ANGER.ordinal()];
 	}
 
 	/**
@@ -200,14 +244,7 @@ public class EmotionalState {
 	 * @return {@link Emotion} of disgust
 	 */
 	public Emotion getDisgust() {
-		Emotion value = new Emotion(0.0, Emotion.DISGUST);
-		for (Emotion e : emotions) {
-			if (e.getType() == Emotion.DISGUST) {
-				value = e;
-			}
-		}
-
-		return value;
+		return getEmotion(EmotionType.DISGUST);
 	}
 
 	/**
@@ -216,23 +253,16 @@ public class EmotionalState {
 	 * @return double representing the disgust weight
 	 */
 	public double getDisgustWeight() {
-		return getDisgust().getWeight();
+		return weights[EmotionType.DISGUST.ordinal()];
 	}
 
 	/**
-	 * Getter for the {@link Emotion} of surprise
+	 * Getter for the {@link Emotion} of surprise.
 	 * 
 	 * @return {@link Emotion} of surprise
 	 */
 	public Emotion getSurprise() {
-		Emotion value = new Emotion(0.0, Emotion.SURPRISE);
-		for (Emotion e : emotions) {
-			if (e.getType() == Emotion.SURPRISE) {
-				value = e;
-			}
-		}
-
-		return value;
+		return getEmotion(EmotionType.SURPRISE);
 	}
 
 	/**
@@ -241,7 +271,7 @@ public class EmotionalState {
 	 * @return double representing the surprise weight
 	 */
 	public double getSurpriseWeight() {
-		return getSurprise().getWeight();
+		return weights[EmotionType.SURPRISE.ordinal()];
 	}
 
 	/**
@@ -254,7 +284,8 @@ public class EmotionalState {
 	}
 
 	/**
-	 * Setter for the previous {@link EmotionalState}
+	 * Setter for the previous {@link EmotionalState}. The chain of states is not bounded, long
+	 * running conversations should rather be tracked by a {@link Conversation}.
 	 * 
 	 * @param previous
 	 *            previous {@link EmotionalState}
@@ -284,13 +315,34 @@ public class EmotionalState {
 	/**
 	 * Getter for the text used as an interpretation resource
 	 *
-	 * @return {@link String} representing the text
+	 * @return {@link String} representing the text, or null if it is not kept
 	 */
 
 	public String getText() {
 		return text;
 	}
 
+	/**
+	 * Returns a copy of the state (without the previous state), so the copy and the
+	 * original can be changed independently.
+	 *
+	 * @return {@link EmotionalState} copy
+	 */
+	public EmotionalState copy() {
+		return copy(text);
+	}
+
+	/**
+	 * Returns a copy of the state (without the previous state) for the text,
+	 * so the copy and the original can be changed independently.
+	 *
+	 * @param text {@link String} representing the text of the copy
+	 * @return {@link EmotionalState} copy
+	 */
+	EmotionalState copy(String text) {
+		return new EmotionalState(text, weights, generalWeight, valence);
+	}
+
 	/**
 	 * Transforms emotional data into a descriptive sentence ('toString' method)
 	 * 
@@ -299,7 +351,8 @@ public class EmotionalState {
 	@Override
 	public String toString() {
 		StringJoiner sj = new StringJoiner("\n");
-		sj.add("Text: " + text);
+		if (text != null)
+			sj.add("Text: " + text);
 		sj.add("General weight: " + generalWeight);
 		sj.add("Valence: " + valence);
 		sj.add("Happiness weight: " + getHappinessWeight());
@@ -311,4 +364,22 @@ public class EmotionalState {
 
 		return sj.toString();
 	}
+
+	/**
+	 * Selection of the strongest emotion which is not taken yet, without sorting (even weights
+	 * go by the precedence of the types, see {@link Emotion#compareTo(Emotion)}).
+	 * 
+	 * @param taken int representing the bit mask of the ordinals of the types to skip
+	 * @return int representing the ordinal of the strongest type, -1 if no type has a positive weight
+	 */
+	private int strongest(int taken) {
+		int value = -1;
+		for (int i = 0; i < weights.length; i++) {
+			if (((taken & (1 << i)) == 0) && (weights[i] > 0) && ((value < 0) || (weights[i] > weights[value])
+					|| ((weights[i] == weights[value]) && (TYPES[i].precedence < TYPES[value].precedence))))
+				value = i;
+		}
+
+		return value;
+	}
 }
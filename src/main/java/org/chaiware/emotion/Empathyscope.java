@@ -1,13 +1,22 @@
 package org.chaiware.emotion;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
-import org.chaiware.emotion.util.HeuristicsUtility;
+import org.chaiware.emotion.util.EmoticonMatch;
 import org.chaiware.emotion.util.LexicalUtility;
-import org.chaiware.emotion.util.ParsingUtility;
+import org.chaiware.emotion.util.SentenceFeatures;
+import org.chaiware.emotion.util.SentenceReader;
+import org.chaiware.emotion.util.TextTokenizer;
+import org.chaiware.emotion.util.TokenDictionary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,12 +24,31 @@ import org.slf4j.LoggerFactory;
  * Defines logic for transferring textual affect information, emotional
  * manifestations recognised in text into visual output.<br/>
  * This class is a singleton.
+ * <p>
+ * Thread safety: the instance is created, and the Lexicon loaded, exactly once, even
+ * when many threads ask for it at the same time. After that {@link #feel(String)} may be
+ * called concurrently by any number of threads: it only reads the immutable Lexicon and
+ * keeps its per-analysis state on the calling thread, so it takes no locks.
+ * <p>
+ * The Lexicon can be loaded ahead of the first analysis with {@link #preload()}, and the
+ * results of repeated texts can be cached with {@link #setCache(EmotionCache)}. The heuristic
+ * rules which adjust the weights of the words are set with {@link #setRules(HeuristicRules)}.
  */
 public class Empathyscope {
 
     private static Logger logger = LoggerFactory.getLogger(Empathyscope.class);
-	private static Empathyscope instance;
-	private LexicalUtility lexUtil;
+	private static volatile Empathyscope instance;
+	private static final AtomicReference<CompletableFuture<Empathyscope>> preloading = new AtomicReference<CompletableFuture<Empathyscope>>();
+	private static final ThreadLocal<AnalysisContext> contexts = new ThreadLocal<AnalysisContext>() {
+		@Override
+		protected AnalysisContext initialValue() {
+			return new AnalysisContext();
+		}
+	};
+	private final LexicalUtility lexUtil;
+	private volatile EmotionCache cache;
+	private volatile boolean keepText = true;
+	private volatile HeuristicRules rules = HeuristicRules.DEFAULT;
 
 	private Empathyscope() throws IOException {
 		lexUtil = LexicalUtility.getInstance();
@@ -28,164 +56,433 @@ public class Empathyscope {
 	}
 
 	/**
-	 * Returns the Singleton instance of the {@link Empathyscope}.
+	 * Returns the Singleton instance of the {@link Empathyscope}, creating it on first use.
+	 * Only the first use is synchronized, later calls just read the instance.
 	 * 
 	 * @return {@link Empathyscope} instance
 	 * @throws IOException
 	 */
 	public static Empathyscope getInstance() throws IOException {
-		if (instance == null) {
-			instance = new Empathyscope();
+		Empathyscope value = instance;
+		if (value == null) {
+			synchronized (Empathyscope.class) {
+				value = instance;
+				if (value == null) {
+					value = new Empathyscope();
+					instance = value;
+				}
+			}
 		}
 
-		return instance;
+		return value;
+	}
+
+	/**
+	 * Starts creating the Singleton instance (loading the Lexicon) on a background thread, so
+	 * services can load it at boot and be ready once the returned future completes. Only one
+	 * load ever runs: calls of {@link #getInstance()} made meanwhile wait for it, and later
+	 * calls of this method return the same future (unless the load failed, then it is retried).
+	 * 
+	 * @return {@link CompletableFuture} completed with the instance, or with the failure of the load
+	 */
+	public static CompletableFuture<Empathyscope> preload() {
+		while (true) {
+			CompletableFuture<Empathyscope> future = preloading.get();
+			if ((future != null) && (!future.isCompletedExceptionally()))
+				return future;
+
+			final CompletableFuture<Empathyscope> loading = new CompletableFuture<Empathyscope>();
+			if (preloading.compareAndSet(future, loading)) {
+				Thread loader = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							loading.complete(getInstance());
+						} catch (IOException | RuntimeException e) {
+							logger.debug("Empathy Scope preload failure", e);
+							loading.completeExceptionally(e);
+						}
+					}
+				}, "Empathyscope-preload");
+				loader.setDaemon(true);
+				loader.start();
+				return loading;
+			}
+		}
+	}
+
+	/**
+	 * Returns true once the Singleton instance is created (the Lexicon is loaded),
+	 * so {@link #getInstance()} returns without waiting.
+	 * 
+	 * @return boolean, true if the instance is ready
+	 */
+	public static boolean isReady() {
+		return instance != null;
+	}
+
+	/**
+	 * Sets the cache of the results of {@link #feel(String)}, consulted before analysing a text.
+	 * 
+	 * @param cache {@link EmotionCache} to use, or null (the default) for no caching
+	 */
+	public void setCache(EmotionCache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * Getter for the cache of the results, see {@link #setCache(EmotionCache)}.
+	 * 
+	 * @return {@link EmotionCache}, or null if results are not cached
+	 */
+	public EmotionCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * Sets the heuristic rules which adjust the weights of the words, e.g. to add rules of a domain
+	 * or to switch some of the {@link StandardRule} rules off. The cache of the results, if any, is cleared.
+	 * 
+	 * @param rules {@link HeuristicRules} to apply ({@link HeuristicRules#DEFAULT} unless set)
+	 */
+	public void setRules(HeuristicRules rules) {
+		if (rules == null)
+			throw new IllegalArgumentException("Rules must not be null");
+
+		this.rules = rules;
+		EmotionCache cache = this.cache;
+		if (cache != null)
+			cache.clear();
+	}
+
+	/**
+	 * Getter for the heuristic rules, see {@link #setRules(HeuristicRules)}.
+	 * 
+	 * @return {@link HeuristicRules}
+	 */
+	public HeuristicRules getRules() {
+		return rules;
+	}
+
+	/**
+	 * Sets whether the {@link EmotionalState} results keep the analysed text (the default),
+	 * bulk jobs which do not need it can drop it to retain less memory.
+	 * 
+	 * @param keepText boolean, false if the results should not keep the text
+	 */
+	public void setKeepText(boolean keepText) {
+		this.keepText = keepText;
+	}
+
+	/**
+	 * Getter for whether the results keep the analysed text, see {@link #setKeepText(boolean)}.
+	 * 
+	 * @return boolean, true if the results keep the text
+	 */
+	public boolean isKeepText() {
+		return keepText;
 	}
 
 	/**
 	 * Textual affect sensing behavior, the main NLP algorithm which uses
-	 * the Lexicon and several heuristic rules.
+	 * the Lexicon and several heuristic rules. Safe to call concurrently,
+	 * each thread reuses its own {@link AnalysisContext}.
 	 * 
 	 * @param text String representing the text to be analysed
 	 * @return {@link EmotionalState} which represents data recognised from the text
 	 * @throws IOException
 	 */
 	public EmotionalState feel(String text) throws IOException {
+		return feel(text, contexts.get());
+	}
 
-		text = text.replace('\n', ' ');
-		List<AffectWord> affectWords = new ArrayList();
-		List<String> sentences = ParsingUtility.parseSentences(text);
+	/**
+	 * Textual affect sensing behavior, using the given context as the scratch state of
+	 * the analysis, so the only object created is the result.
+	 * 
+	 * @param text String representing the text to be analysed
+	 * @param context {@link AnalysisContext} owned by the calling thread
+	 * @return {@link EmotionalState} which represents data recognised from the text
+	 * @throws IOException
+	 */
+	public EmotionalState feel(String text, AnalysisContext context) throws IOException {
+		String resultText = keepText ? text : null;
+		// results of the rules of a context are not the ones of the shared cache
+		EmotionCache cache = (context.getRules() == null) ? this.cache : null;
+		if (cache != null) {
+			EmotionalState value = cache.get(text, resultText);
+			if (value != null)
+				return value;
+		}
 
-		for (String sentence : sentences) {
-			
-			logger.debug("- " + sentence);
-			
-			// we imply 6 heuristic rules to adjust emotive weights of the words:
-			// (1) more exclamation signs in a sentence => more intensive emotive weights
-			double exclamationQoef = HeuristicsUtility.computeExclamationQoef(sentence.toLowerCase());
-
-			// (2) an exclamation mark next to a question mark => emotion of surprise
-			if (HeuristicsUtility.hasExclamationQuestionMarks(sentence)) {
-				AffectWord emoWordSurprise = new AffectWord("?!");
-				emoWordSurprise.setSurpriseWeight(1.0);
-				affectWords.add(emoWordSurprise);
+		// the rules are read once, so the whole text is analysed with the same ones
+		HeuristicRules rules = rulesOf(context);
+		analyse(text, context.accumulator, context, rules);
+
+		EmotionalState value = context.accumulator.toEmotionalState(resultText);
+		if ((cache != null) && (rules == this.rules)) {
+			cache.put(text, value);
+			// setRules() may have cleared the cache between the check and the put
+			if (rules != this.rules)
+				cache.remove(text);
+		}
+
+		return value;
+	}
+
+	/**
+	 * Textual affect sensing behavior which creates no object: the result is left in the
+	 * context, to be read with its getters (the cache of the results is not used).
+	 * 
+	 * @param text {@link CharSequence} representing the text to be analysed
+	 * @param context {@link AnalysisContext} owned by the calling thread
+	 * @return {@link AnalysisContext} the context, holding the result
+	 * @throws IOException
+	 */
+	public AnalysisContext analyse(CharSequence text, AnalysisContext context) throws IOException {
+		analyse(text, context.accumulator, context, rulesOf(context));
+		return context;
+	}
+
+	private void analyse(CharSequence text, AffectAccumulator accumulator, AnalysisContext context,
+			HeuristicRules rules) throws IOException {
+		accumulator.reset();
+		context.tokens.reset(text);
+
+		while (context.tokens.nextSentence())
+			feelSentence(context, accumulator, rules);
+	}
+
+	/** @return the rules of the context, or the ones of this instance when the context has none */
+	private HeuristicRules rulesOf(AnalysisContext context) {
+		HeuristicRules value = context.getRules();
+		return (value != null) ? value : rules;
+	}
+
+	/**
+	 * Textual affect sensing of a text, broken down into paragraphs and sentences in a single
+	 * pass: each sentence is analysed once, and the states of the paragraphs and of the document
+	 * are computed from the states of their sentences.
+	 * <p>
+	 * The text is first split into paragraphs on blank lines, so a line without terminal
+	 * punctuation (e.g. a title) is a paragraph of its own, then the paragraphs are split into
+	 * sentences. A new paragraph also starts after a sentence which ends with a line break. The
+	 * document's state is the one of {@link #feel(String)}, unless a sentence of the text runs
+	 * across a blank line (it is then analysed as one sentence per paragraph).
+	 * 
+	 * @param text String representing the text to be analysed
+	 * @return {@link EmotionalSpan} of the document, whose parts are the paragraphs, whose parts are the sentences
+	 * @throws IOException
+	 */
+	public EmotionalSpan feelBreakdown(String text) throws IOException {
+
+		AffectAccumulator document = new AffectAccumulator();
+		AffectAccumulator paragraph = new AffectAccumulator();
+		AffectAccumulator accumulator = new AffectAccumulator();
+		List<EmotionalSpan> paragraphs = new ArrayList<EmotionalSpan>();
+		List<EmotionalSpan> sentences = new ArrayList<EmotionalSpan>();
+		int paragraphStart = 0;
+
+		AnalysisContext context = new AnalysisContext();
+		HeuristicRules rules = this.rules;
+		TextTokenizer tokens = context.tokens;
+
+		// each block of lines up to a blank line is split into sentences on its own
+		int blockStart = 0;
+		do {
+			int blockEnd = blankLinesEnd(text, blockStart);
+			tokens.reset((blockStart == 0) && (blockEnd == text.length()) ? text : text.substring(blockStart, blockEnd));
+
+			while (tokens.nextSentence()) {
+				int start = blockStart + tokens.getSentenceStart();
+				int end = blockStart + tokens.getSentenceEnd();
+				accumulator.reset();
+				feelSentence(context, accumulator, rules);
+				paragraph.accumulate(accumulator);
+				sentences.add(new EmotionalSpan(start, end, accumulator.toEmotionalState(keepText ? text.substring(start, end) : null),
+						Collections.<EmotionalSpan>emptyList()));
+
+				if (endsWithLineBreak(text, start, end)) {
+					paragraphs.add(new EmotionalSpan(paragraphStart, end,
+							paragraph.toEmotionalState(keepText ? text.substring(paragraphStart, end) : null), sentences));
+					document.accumulate(paragraph);
+					paragraph.reset();
+					sentences = new ArrayList<EmotionalSpan>();
+					paragraphStart = end;
+				}
 			}
+
+			if (!sentences.isEmpty()) {
+				paragraphs.add(new EmotionalSpan(paragraphStart, blockEnd,
+						paragraph.toEmotionalState(keepText ? text.substring(paragraphStart, blockEnd) : null), sentences));
+				document.accumulate(paragraph);
+				paragraph.reset();
+				sentences = new ArrayList<EmotionalSpan>();
+				paragraphStart = blockEnd;
+			}
+			blockStart = blockEnd;
+		} while (blockStart < text.length());
+
+		return new EmotionalSpan(0, text.length(), document.toEmotionalState(keepText ? text : null), paragraphs);
+	}
+
+	/**
+	 * Textual affect sensing of a text read as a stream: sentences are read and analysed one by one,
+	 * so the memory used does not depend on the size of the text. Each sentence's
+	 * {@link EmotionalState} is passed to the listener as soon as it is known.
+	 * 
+	 * @param in {@link Reader} of the text to be analysed, it is not closed
+	 * @param listener {@link SentenceListener} which receives the state of each sentence
+	 * @return {@link EmotionalState} of the whole text (without the text itself, its text is null)
+	 * @throws IOException
+	 */
+	public EmotionalState feel(Reader in, SentenceListener listener) throws IOException {
+
+		AffectAccumulator document = new AffectAccumulator();
+		AffectAccumulator accumulator = new AffectAccumulator();
+		SentenceReader sentences = new SentenceReader(in);
+
+		// not the context of the thread, the listener may analyse texts too
+		AnalysisContext context = new AnalysisContext();
+		HeuristicRules rules = this.rules;
+		TextTokenizer tokens = context.tokens;
+
+		String sentence;
+		while ((sentence = sentences.readSentence()) != null) {
+			accumulator.reset();
+			tokens.resetSentence(sentence, 0, sentence.length());
+			tokens.nextSentence();
+			feelSentence(context, accumulator, rules);
+			document.accumulate(accumulator);
+			listener.sentenceFelt(sentence, accumulator.toEmotionalState(keepText ? sentence : null));
+		}
+
+		return document.toEmotionalState(null);
+	}
+
+	/**
+	 * Textual affect sensing of a text read as a stream, see {@link #feel(Reader, SentenceListener)}.
+	 * 
+	 * @param in {@link InputStream} of the text to be analysed, it is not closed
+	 * @param charset {@link Charset} the text is encoded with
+	 * @param listener {@link SentenceListener} which receives the state of each sentence
+	 * @return {@link EmotionalState} of the whole text (without the text itself, its text is null)
+	 * @throws IOException
+	 */
+	public EmotionalState feel(InputStream in, Charset charset, SentenceListener listener) throws IOException {
+		return feel(new InputStreamReader(in, charset), listener);
+	}
+
+	/**
+	 * Applies the Lexicon and the heuristic rules to one sentence, accumulating
+	 * the affect words found in it.
+	 * 
+	 * @param context {@link AnalysisContext} whose tokenizer is positioned on the sentence
+	 * @param accumulator {@link AffectAccumulator} which receives the affect words of the sentence
+	 * @param rules {@link HeuristicRules} of the analysis
+	 * @throws IOException
+	 */
+	private void feelSentence(AnalysisContext context, AffectAccumulator accumulator, HeuristicRules rules)
+			throws IOException {
+		TextTokenizer tokens = context.tokens;
+		CharSequence text = tokens.getText();
+		int sentenceStart = tokens.getSentenceStart();
+		int sentenceEnd = tokens.getSentenceEnd();
+		if (logger.isDebugEnabled())
+			logger.debug("- " + text.subSequence(sentenceStart, sentenceEnd));
+		
+		// the features the enabled rules read are found in a single scan of the sentence
+		SentenceFeatures features = context.features;
+		features.scan(text, sentenceStart, sentenceEnd, rules.getFeatures());
+
+		// the heuristic rules (see StandardRule) adjust the emotive weights of the sentence
+		// and of each of its affect words and emoticons, in a single pass over its tokens
+		rules.applyToSentence(features, accumulator);
+
+		// the previous word is kept as its classification, and the negation as its end
+		TokenDictionary dictionary = lexUtil.getTokenDictionary();
+		AffectToken token = context.token;
+		token.startSentence();
+		
+		while (tokens.nextChunk()) {
 			
-			boolean hasNegation = false;
-			
-			List<String> splitWords = ParsingUtility.splitWords(sentence," ");
-			String previousWord = "";
-			String negation = "";
-			
-			for (String splitWord : splitWords) {
-				
-				AffectWord emoWord = lexUtil.getEmoticonAffectWord(splitWord);
-				if (emoWord == null)
-					emoWord = lexUtil.getEmoticonAffectWord(splitWord.toLowerCase());
-
-				if (emoWord != null) {
-					// (3) more emoticons with more 'emotive' signs (e.g. :DDDD)
-					// => more intensive emotive weights
-										
-					double emoticonCoef = HeuristicsUtility.computeEmoticonQoef(splitWord, emoWord);
-					if (emoticonCoef == 1.0)
-						emoticonCoef = HeuristicsUtility.computeEmoticonQoef(splitWord.toLowerCase(), emoWord);
-					emoWord.adjustWeights(exclamationQoef * emoticonCoef);
-					affectWords.add(emoWord);
-				} else {
-
-					List<String> words = ParsingUtility.parseWords(splitWord);
+			int chunkStart = tokens.getChunkStart();
+			int chunkEnd = tokens.getChunkEnd();
+			EmoticonMatch emoticon = context.emoticon;
+			if ((lexUtil.matchEmoticon(text, chunkStart, chunkEnd, false, emoticon))
+					|| (lexUtil.matchEmoticon(text, chunkStart, chunkEnd, true, emoticon))) {
+				token.setEmoticon(chunkStart, chunkEnd, emoticon);
+				rules.applyToEmoticon(features, token);
+				accumulator.load(emoticon.getAffectWord());
+				if (token.isNegated())
+					accumulator.flipValence();
+				accumulator.adjustWeights(token.getQuoficient());
+				accumulator.accumulate();
+			} else {
+
+				while (tokens.nextWord()) {
 					
-					for (String word : words) {
-						
-						// (4) negation in a sentence => 
-						// flip valence of the affect words in it
-						if (HeuristicsUtility.isNegation(word.toLowerCase())) {
-							negation = word;
-							hasNegation = true;
-						}
+					int wordStart = tokens.getWordStart();
+					int wordEnd = tokens.getWordEnd();
 
-						emoWord = lexUtil.getAffectWord(word.toLowerCase());
-						if (emoWord == null)
-							emoWord = lexUtil.getEmoticonAffectWord(word.toLowerCase());
-						if (emoWord != null) {
-							
-							// (5) word is upper case => more intensive emotive weights
-							double capsLockCoef = HeuristicsUtility.computeUpperCasedQoef(word);
-
-							// (6) previous word is a intensity modifier (e.g.
-							// "extremely") => more intensive emotive weights
-							double modifierCoef = HeuristicsUtility.computeModifier(previousWord);
-							
-							// change the affect word!
-							if ((hasNegation) && (LexicalUtility.inTheSamePartOfTheSentence(negation, emoWord.getWord(), sentence))) {
-								emoWord.flipValence();
-							}
-
-							emoWord.adjustWeights(exclamationQoef * capsLockCoef * modifierCoef);
-							affectWords.add(emoWord);
-						}
+					// all the roles of the word, with a single lookup
+					int word = dictionary.classify(text, wordStart, wordEnd);
+					if (TokenDictionary.hasRole(word, TokenDictionary.NEGATION))
+						token.setNegationEnd(wordEnd);
+
+					// the word's entry is in the words' Lexicon or else in the emoticons'
+					if (TokenDictionary.hasRole(word, TokenDictionary.AFFECT_WORD | TokenDictionary.EMOTICON)) {
+						token.setWord(wordStart, wordEnd, word);
+						rules.applyToWord(features, token);
 
-						previousWord = word;
+						// change the affect word! (a negated word has its flipped weights precomputed)
+						AffectLexicon lexicon = TokenDictionary.hasRole(word, TokenDictionary.AFFECT_WORD)
+								? lexUtil.getAffectLexicon() : lexUtil.getEmoticonLexicon();
+						accumulator.load(lexicon, TokenDictionary.id(word), token.isNegated());
+						accumulator.adjustWeights(token.getQuoficient());
+						accumulator.accumulate();
 					}
+
+					token.setPreviousClassification(word);
 				}
 			}
 		}
+	}
+
+	/**
+	 * Finds the end of the block of lines which starts at the offset: the offset after the first
+	 * blank line (a line of white space only) following some text, and the white space following
+	 * it, or the end of the text.
+	 */
+	private static int blankLinesEnd(String text, int start) {
+		int length = text.length();
+		int textStart = start;
+		while ((textStart < length) && Character.isWhitespace(text.charAt(textStart)))
+			textStart++;
+
+		for (int lineBreak = text.indexOf('\n', textStart); lineBreak >= 0; lineBreak = text.indexOf('\n', lineBreak + 1)) {
+			int i = lineBreak + 1;
+			while ((i < length) && (text.charAt(i) != '\n') && Character.isWhitespace(text.charAt(i)))
+				i++;
+			if ((i < length) && (text.charAt(i) == '\n')) {
+				while ((i < length) && Character.isWhitespace(text.charAt(i)))
+					i++;
+				return i;
+			}
+		}
 
-		return createEmotionalState(text, affectWords);
-	}
-
-	private EmotionalState createEmotionalState(String text, List<AffectWord> affectWords) {
-		TreeSet<Emotion> emotions = new TreeSet();
-		int generalValence = 0;
-
-        double valence = 0.0;
-        double generalWeight = 0.0;
-        double happinessWeight = 0.0;
-        double sadnessWeight = 0.0;
-        double angerWeight = 0.0;
-        double fearWeight = 0.0;
-        double disgustWeight = 0.0;
-        double surpriseWeight = 0.0;
-
-		// compute weights. maximum weights for the particular emotion are taken.
-		for (AffectWord affectWord : affectWords) {
-			valence += affectWord.getGeneralValence();
-			if (affectWord.getGeneralWeight() > generalWeight)
-				generalWeight = affectWord.getGeneralWeight();
-			if (affectWord.getHappinessWeight() > happinessWeight)
-				happinessWeight = affectWord.getHappinessWeight();
-			if (affectWord.getSadnessWeight() > sadnessWeight)
-				sadnessWeight = affectWord.getSadnessWeight();
-			if (affectWord.getAngerWeight() > angerWeight)
-				angerWeight = affectWord.getAngerWeight();
-			if (affectWord.getFearWeight() > fearWeight)
-				fearWeight = affectWord.getFearWeight();
-			if (affectWord.getDisgustWeight() > disgustWeight)
-				disgustWeight = affectWord.getDisgustWeight();
-			if (affectWord.getSurpriseWeight() > surpriseWeight)
-				surpriseWeight = affectWord.getSurpriseWeight();
+		return length;
+	}
+
+	/**
+	 * @return boolean, true if the white space which ends the sentence holds a line break
+	 */
+	private static boolean endsWithLineBreak(String text, int start, int end) {
+		for (int i = end - 1; (i >= start) && Character.isWhitespace(text.charAt(i)); i--) {
+			if (text.charAt(i) == '\n')
+				return true;
 		}
 
-		if (valence > 0)
-			generalValence = 1;
-		else if (valence < 0)
-			generalValence = -1;
-
-		if (happinessWeight > 0)
-			emotions.add(new Emotion(happinessWeight, Emotion.HAPPINESS));
-		if (sadnessWeight > 0)
-			emotions.add(new Emotion(sadnessWeight, Emotion.SADNESS));
-		if (angerWeight > 0)
-			emotions.add(new Emotion(angerWeight, Emotion.ANGER));
-		if (fearWeight > 0)
-			emotions.add(new Emotion(fearWeight, Emotion.FEAR));
-		if (disgustWeight > 0)
-			emotions.add(new Emotion(disgustWeight, Emotion.DISGUST));
-		if (surpriseWeight > 0)
-			emotions.add(new Emotion(surpriseWeight, Emotion.SURPRISE));
-		if (emotions.isEmpty())
-			emotions.add(new Emotion((0.2 + generalWeight) / 1.2, Emotion.NEUTRAL));
-
-		return new EmotionalState(text, emotions, generalWeight, generalValence);
+		return false;
 	}
 }
@@ -0,0 +1,53 @@
+package org.chaiware.emotion;
+
+import org.chaiware.emotion.util.SentenceFeatures;
+
+/**
+ * A heuristic rule which adjusts the emotive weights found by {@link Empathyscope}, e.g. the
+ * rules of {@link StandardRule}. The enabled rules are held by {@link HeuristicRules}.
+ * <p>
+ * A rule declares what it applies to ({@link #getTargets()}) and which features of the sentence
+ * it reads ({@link #getFeatures()}). A sentence is scanned once for the features all the
+ * enabled rules read, then the rules are applied to the sentence, and to each affect word and
+ * emoticon of it in a single pass over its tokens. A rule reads the {@link SentenceFeatures} and
+ * the {@link AffectToken}, never the text, so adding a rule adds no scan of the text.
+ * <p>
+ * Rules are shared by all the analyses, so they must be stateless (or thread safe).
+ */
+public interface HeuristicRule {
+
+	/** Target of a rule applied once to each sentence */
+	int SENTENCE = 1;
+	/** Target of a rule applied to each affect word (an entry of a Lexicon) */
+	int WORD = 2;
+	/** Target of a rule applied to each emoticon chunk (e.g. ':DDD') */
+	int EMOTICON = 4;
+
+	/**
+	 * @return the targets of the rule, a mask of {@link #SENTENCE}, {@link #WORD} and {@link #EMOTICON}
+	 */
+	int getTargets();
+
+	/**
+	 * @return the features which the rule reads, a mask of the features of {@link SentenceFeatures}
+	 */
+	int getFeatures();
+
+	/**
+	 * Applies the rule to the sentence, before its tokens (called for a {@link #SENTENCE} target).
+	 *
+	 * @param features {@link SentenceFeatures} of the sentence
+	 * @param accumulator {@link AffectAccumulator} of the text, e.g. to accumulate an affect word of the rule
+	 */
+	void applyToSentence(SentenceFeatures features, AffectAccumulator accumulator);
+
+	/**
+	 * Applies the rule to an affect word or an emoticon of the sentence (called for a {@link #WORD}
+	 * or an {@link #EMOTICON} target): the rule may adjust or negate the token, before its weights
+	 * are accumulated.
+	 *
+	 * @param features {@link SentenceFeatures} of the sentence
+	 * @param token {@link AffectToken} representing the affect word or the emoticon
+	 */
+	void applyToToken(SentenceFeatures features, AffectToken token);
+}
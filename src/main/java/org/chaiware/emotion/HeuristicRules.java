@@ -0,0 +1,148 @@
+package org.chaiware.emotion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.chaiware.emotion.util.SentenceFeatures;
+
+/**
+ * The ordered set of the enabled {@link HeuristicRule} instances of an analysis, see
+ * {@link Empathyscope#setRules(HeuristicRules)} and {@link AnalysisContext#setRules(HeuristicRules)}.
+ * <p>
+ * The rules are grouped by target when the set is created, so each sentence and each token only
+ * goes through the rules which apply to it, and a disabled rule (one which is not in the set)
+ * costs nothing: it is never called, and the features only it reads are not scanned. The
+ * quoficients of a token are multiplied in the order of the rules.
+ * <p>
+ * Sets are immutable, e.g. {@code HeuristicRules.DEFAULT.without(StandardRule.UPPER_CASE)}.
+ */
+public final class HeuristicRules {
+
+	/** The {@link StandardRule} rules, in order */
+	public static final HeuristicRules DEFAULT = of(StandardRule.values());
+
+	/** No rule at all, only the Lexicon weights of the words are accumulated */
+	public static final HeuristicRules NONE = of();
+
+	private final HeuristicRule[] rules;
+	private final HeuristicRule[] sentenceRules;
+	private final HeuristicRule[] wordRules;
+	private final HeuristicRule[] emoticonRules;
+	private final int features;
+
+	private HeuristicRules(HeuristicRule[] rules) {
+		this.rules = rules;
+		sentenceRules = select(rules, HeuristicRule.SENTENCE);
+		wordRules = select(rules, HeuristicRule.WORD);
+		emoticonRules = select(rules, HeuristicRule.EMOTICON);
+
+		int value = 0;
+		for (HeuristicRule rule : rules)
+			value |= rule.getFeatures();
+		features = value;
+	}
+
+	/**
+	 * Creates the set of the given rules.
+	 *
+	 * @param rules array of the {@link HeuristicRule} instances, in the order in which they are applied
+	 * @return {@link HeuristicRules}
+	 */
+	public static HeuristicRules of(HeuristicRule... rules) {
+		List<HeuristicRule> distinct = new ArrayList<HeuristicRule>();
+		for (HeuristicRule rule : rules) {
+			if (rule == null)
+				throw new IllegalArgumentException("Rule must not be null");
+			if (!distinct.contains(rule))
+				distinct.add(rule);
+		}
+
+		return new HeuristicRules(distinct.toArray(new HeuristicRule[distinct.size()]));
+	}
+
+	/**
+	 * Returns the set with the given rule added, applied after the rules of this set.
+	 *
+	 * @param rule {@link HeuristicRule} to enable
+	 * @return {@link HeuristicRules}
+	 */
+	public HeuristicRules with(HeuristicRule rule) {
+		HeuristicRule[] value = Arrays.copyOf(rules, rules.length + 1);
+		value[rules.length] = rule;
+		return of(value);
+	}
+
+	/**
+	 * Returns the set without the given rule.
+	 *
+	 * @param rule {@link HeuristicRule} to disable
+	 * @return {@link HeuristicRules}
+	 */
+	public HeuristicRules without(HeuristicRule rule) {
+		List<HeuristicRule> value = new ArrayList<HeuristicRule>(Arrays.asList(rules));
+		value.remove(rule);
+		return of(value.toArray(new HeuristicRule[value.size()]));
+	}
+
+	/**
+	 * @param rule {@link HeuristicRule}
+	 * @return boolean, true if the rule is enabled
+	 */
+	public boolean contains(HeuristicRule rule) {
+		return Arrays.asList(rules).contains(rule);
+	}
+
+	/**
+	 * @return unmodifiable {@link List} of the rules, in order
+	 */
+	public List<HeuristicRule> getRules() {
+		return Collections.unmodifiableList(Arrays.asList(rules));
+	}
+
+	/**
+	 * @return the features of the sentence which the rules read, a mask of the features of {@link SentenceFeatures}
+	 */
+	public int getFeatures() {
+		return features;
+	}
+
+	/** Applies the rules which target sentences */
+	void applyToSentence(SentenceFeatures features, AffectAccumulator accumulator) {
+		for (HeuristicRule rule : sentenceRules)
+			rule.applyToSentence(features, accumulator);
+	}
+
+	/** Applies the rules which target affect words */
+	void applyToWord(SentenceFeatures features, AffectToken token) {
+		for (HeuristicRule rule : wordRules)
+			rule.applyToToken(features, token);
+	}
+
+	/** Applies the rules which target emoticons */
+	void applyToEmoticon(SentenceFeatures features, AffectToken token) {
+		for (HeuristicRule rule : emoticonRules)
+			rule.applyToToken(features, token);
+	}
+
+	/**
+	 * Returns a string representation of the object.
+	 *
+	 * @return a string representation of the object
+	 */
+	@Override
+	public String toString() {
+		return "Rules: " + Arrays.toString(rules);
+	}
+
+	private static HeuristicRule[] select(HeuristicRule[] rules, int target) {
+		List<HeuristicRule> value = new ArrayList<HeuristicRule>();
+		for (HeuristicRule rule : rules) {
+			if ((rule.getTargets() & target) != 0)
+				value.add(rule);
+		}
+
+		return value.toArray(new HeuristicRule[value.size()]);
+	}
+}
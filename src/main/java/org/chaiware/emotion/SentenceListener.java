@@ -0,0 +1,16 @@
+package org.chaiware.emotion;
+
+/**
+ * Receives the {@link EmotionalState} of each sentence of a text analysed as a stream,
+ * see {@link Empathyscope#feel(java.io.Reader, SentenceListener)}.
+ */
+public interface SentenceListener {
+
+	/**
+	 * Called for each sentence of the text, in order, as soon as it has been analysed.
+	 * 
+	 * @param sentence {@link String} representing the sentence
+	 * @param state {@link EmotionalState} of the sentence
+	 */
+	void sentenceFelt(String sentence, EmotionalState state);
+}
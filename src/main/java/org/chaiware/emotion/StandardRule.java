@@ -0,0 +1,96 @@
+package org.chaiware.emotion;
+
+import org.chaiware.emotion.util.HeuristicsUtility;
+import org.chaiware.emotion.util.SentenceFeatures;
+import org.chaiware.emotion.util.TokenDictionary;
+
+/**
+ * The six heuristic rules of {@link Empathyscope}, all enabled by {@link HeuristicRules#DEFAULT},
+ * in the order in which they are applied. Their quoficients are the ones of {@link HeuristicsUtility}.
+ */
+public enum StandardRule implements HeuristicRule {
+
+	/** (1) more exclamation signs in a sentence => more intensive emotive weights */
+	EXCLAMATIONS(WORD | EMOTICON, SentenceFeatures.EXCLAMATIONS) {
+		@Override
+		public void applyToToken(SentenceFeatures features, AffectToken token) {
+			token.adjust(HeuristicsUtility.computeExclamationQoef(features));
+		}
+	},
+
+	/** (2) an exclamation mark next to a question mark => emotion of surprise */
+	EXCLAMATION_QUESTION_MARKS(SENTENCE, SentenceFeatures.EXCLAMATION_QUESTION_MARKS) {
+		@Override
+		public void applyToSentence(SentenceFeatures features, AffectAccumulator accumulator) {
+			if (features.hasExclamationQuestionMarks()) {
+				accumulator.load(SURPRISE);
+				accumulator.accumulate();
+			}
+		}
+	},
+
+	/** (3) more emoticons with more 'emotive' signs (e.g. :DDDD) => more intensive emotive weights */
+	EMOTICON_EMPHASIS(EMOTICON, 0) {
+		@Override
+		public void applyToToken(SentenceFeatures features, AffectToken token) {
+			token.adjust(HeuristicsUtility.computeEmoticonQoef(token.getEmoticon()));
+		}
+	},
+
+	/** (4) negation in a sentence => flip valence of the affect words in the same part of it */
+	NEGATION(WORD, SentenceFeatures.CLAUSES) {
+		@Override
+		public void applyToToken(SentenceFeatures features, AffectToken token) {
+			int negationEnd = token.getNegationEnd();
+			if ((negationEnd != AffectToken.NONE)
+					&& ((TokenDictionary.hasRole(token.getClassification(), TokenDictionary.NEGATION))
+							|| (features.getClause(token.getStart()) == features.getClause(negationEnd))))
+				token.negate();
+		}
+	},
+
+	/** (5) word is upper case => more intensive emotive weights */
+	UPPER_CASE(WORD, SentenceFeatures.LOWER_CASES) {
+		@Override
+		public void applyToToken(SentenceFeatures features, AffectToken token) {
+			token.adjust(HeuristicsUtility.computeUpperCasedQoef(features, token.getStart(), token.getEnd()));
+		}
+	},
+
+	/** (6) previous word is a intensity modifier (e.g. "extremely") => more intensive emotive weights */
+	INTENSITY_MODIFIER(WORD, 0) {
+		@Override
+		public void applyToToken(SentenceFeatures features, AffectToken token) {
+			token.adjust(HeuristicsUtility.computeModifier(token.getPreviousClassification()));
+		}
+	};
+
+	/** The affect word of rule (2) */
+	private static final AffectWord SURPRISE = new AffectWord("?!", 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 1.0);
+
+	private final int targets;
+	private final int features;
+
+	private StandardRule(int targets, int features) {
+		this.targets = targets;
+		this.features = features;
+	}
+
+	@Override
+	public int getTargets() {
+		return targets;
+	}
+
+	@Override
+	public int getFeatures() {
+		return features;
+	}
+
+	@Override
+	public void applyToSentence(SentenceFeatures features, AffectAccumulator accumulator) {
+	}
+
+	@Override
+	public void applyToToken(SentenceFeatures features, AffectToken token) {
+	}
+}
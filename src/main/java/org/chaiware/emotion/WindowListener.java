@@ -0,0 +1,15 @@
+package org.chaiware.emotion;
+
+/**
+ * Receives the {@link EmotionStatistics} of each window of a stream of messages once the window
+ * is closed, see {@link EmotionWindow}.
+ */
+public interface WindowListener {
+
+	/**
+	 * Called for each closed window which holds messages, in the order of the windows.
+	 *
+	 * @param statistics {@link EmotionStatistics} of the window
+	 */
+	void windowClosed(EmotionStatistics statistics);
+}
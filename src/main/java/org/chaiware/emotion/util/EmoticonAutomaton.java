@@ -0,0 +1,150 @@
+package org.chaiware.emotion.util;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.chaiware.emotion.AffectWord;
+
+/**
+ * Aho-Corasick automaton built over the emoticon Lexicon, which finds every
+ * occurrence of every emoticon in a text in one linear pass.
+ * <p>
+ * Transitions are precomputed for all states (a DFA), over the compact alphabet of
+ * the chars used by the emoticons; any other char leads back to the root state.
+ * <p>
+ * It serves the sentence level lookups of {@link LexicalUtility} ({@link LexicalUtility#scanEmoticons},
+ * {@link LexicalUtility#getEmoticonWords}). The analysis itself only matches an emoticon at the
+ * start of each chunk, which the {@link EmoticonTrie} does.
+ */
+final class EmoticonAutomaton {
+
+	private static final int NONE = -1;
+	private static final int ROOT = 0;
+
+	/** Maps ASCII chars to their alphabet class, class 0 stands for chars not used by any emoticon */
+	private final int[] charClass = new int[128];
+	private final int classes;
+
+	private final int[] transitions;
+	private final int[] depth;
+	/** First emoticon ending at the state, others (duplicates) are chained via nextEntry */
+	private final int[] entry;
+	private final int[] nextEntry;
+	/** Nearest proper suffix state which has emoticons ending at it */
+	private final int[] outputLink;
+
+	private final AffectWord[] emoticons;
+
+	/**
+	 * Class constructor which builds the automaton.
+	 *
+	 * @param emoticonList {@link List} of the emoticon {@link AffectWord} instances, in Lexicon file order
+	 */
+	EmoticonAutomaton(List<AffectWord> emoticonList) {
+		emoticons = emoticonList.toArray(new AffectWord[0]);
+
+		int alphabet = 1;
+		int capacity = 1;
+		for (AffectWord emoticon : emoticons) {
+			String word = emoticon.getWord();
+			capacity += word.length();
+			for (int i = 0; i < word.length(); i++) {
+				char c = word.charAt(i);
+				if (c >= 128)
+					throw new IllegalArgumentException("Emoticons are expected to be ASCII: " + word);
+				if (charClass[c] == 0)
+					charClass[c] = alphabet++;
+			}
+		}
+		classes = alphabet;
+
+		transitions = new int[capacity * classes];
+		depth = new int[capacity];
+		entry = new int[capacity];
+		nextEntry = new int[emoticons.length];
+		outputLink = new int[capacity];
+		Arrays.fill(transitions, NONE);
+		Arrays.fill(entry, NONE);
+		Arrays.fill(outputLink, NONE);
+
+		int states = 1;
+		for (int i = emoticons.length - 1; i >= 0; i--) {
+			String word = emoticons[i].getWord();
+			int state = ROOT;
+			for (int j = 0; j < word.length(); j++) {
+				int t = state * classes + charClass[word.charAt(j)];
+				if (transitions[t] == NONE) {
+					transitions[t] = states;
+					depth[states] = j + 1;
+					states++;
+				}
+				state = transitions[t];
+			}
+			// inserted backwards, so the chain at a state is in Lexicon file order
+			nextEntry[i] = entry[state];
+			entry[state] = i;
+		}
+
+		computeFailures(states);
+	}
+
+	/** Breadth first computation of the failure function, folded into the transitions */
+	private void computeFailures(int states) {
+		int[] failure = new int[states];
+		int[] queue = new int[states];
+		int head = 0;
+		int tail = 0;
+
+		for (int c = 0; c < classes; c++) {
+			int next = transitions[ROOT * classes + c];
+			if (next == NONE || c == 0) {
+				transitions[ROOT * classes + c] = ROOT;
+			} else {
+				failure[next] = ROOT;
+				queue[tail++] = next;
+			}
+		}
+
+		while (head < tail) {
+			int state = queue[head++];
+			int fail = failure[state];
+			outputLink[state] = entry[fail] != NONE ? fail : outputLink[fail];
+			for (int c = 0; c < classes; c++) {
+				int t = state * classes + c;
+				int next = transitions[t];
+				if (next == NONE) {
+					transitions[t] = transitions[fail * classes + c];
+				} else {
+					failure[next] = transitions[fail * classes + c];
+					queue[tail++] = next;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reports every emoticon occurrence in the text to the listener, overlapping ones included.
+	 *
+	 * @param text {@link CharSequence} representing the text
+	 * @param listener {@link EmoticonListener} which receives the occurrences
+	 */
+	void scan(CharSequence text, EmoticonListener listener) {
+		int state = ROOT;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			state = transitions[state * classes + (c < 128 ? charClass[c] : 0)];
+			for (int s = entry[state] != NONE ? state : outputLink[state]; s != NONE; s = outputLink[s]) {
+				int start = i + 1 - depth[s];
+				for (int e = entry[s]; e != NONE; e = nextEntry[e])
+					listener.emoticonFound(emoticons[e], e, start, i + 1);
+			}
+		}
+	}
+
+	/**
+	 * @return the number of emoticons the automaton was built from
+	 */
+	int size() {
+		return emoticons.length;
+	}
+}
@@ -0,0 +1,20 @@
+package org.chaiware.emotion.util;
+
+import org.chaiware.emotion.AffectWord;
+
+/**
+ * Receives the emoticons found while scanning a text, see
+ * {@link LexicalUtility#scanEmoticons(CharSequence, EmoticonListener)}.
+ */
+public interface EmoticonListener {
+
+	/**
+	 * Called for every occurrence of an emoticon in the text, in the order of the occurrences' ends.
+	 *
+	 * @param emoticon {@link AffectWord} representing the emoticon found
+	 * @param emoticonIndex int representing the position of the emoticon in the emoticon Lexicon
+	 * @param start int representing the offset of the emoticon's first char in the text
+	 * @param end int representing the offset after the emoticon's last char in the text
+	 */
+	void emoticonFound(AffectWord emoticon, int emoticonIndex, int start, int end);
+}
@@ -0,0 +1,80 @@
+package org.chaiware.emotion.util;
+
+import org.chaiware.emotion.AffectWord;
+
+/**
+ * Result of looking up an emoticon at the start of a token: the emoticon
+ * found, how much of the token it covers, and how many times its emotive
+ * sign appears in the token (e.g. 4 for ':DDDD').
+ * <p>
+ * A match created by the caller can be filled again by each lookup, see
+ * {@link LexicalUtility#matchEmoticon(CharSequence, int, int, boolean, EmoticonMatch)}.
+ */
+public class EmoticonMatch {
+
+	private AffectWord affectWord;
+	private int emoticonIndex;
+	private int length;
+	private boolean prefix;
+	private int emphasis;
+
+	/**
+	 * Class constructor of an empty match, to be filled by lookups.
+	 */
+	public EmoticonMatch() {
+	}
+
+	void set(AffectWord affectWord, int emoticonIndex, int length, boolean prefix, int emphasis) {
+		this.affectWord = affectWord;
+		this.emoticonIndex = emoticonIndex;
+		this.length = length;
+		this.prefix = prefix;
+		this.emphasis = emphasis;
+	}
+
+	/**
+	 * Getter for the matched emoticon.
+	 * 
+	 * @return {@link AffectWord} representing the emoticon
+	 */
+	public AffectWord getAffectWord() {
+		return affectWord;
+	}
+
+	/**
+	 * Getter for the position of the emoticon in the emoticon Lexicon.
+	 * 
+	 * @return int representing the emoticon's index
+	 */
+	public int getEmoticonIndex() {
+		return emoticonIndex;
+	}
+
+	/**
+	 * Getter for the number of chars of the token covered by the emoticon.
+	 * 
+	 * @return int representing the matched length
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * Returns true if the token only starts with the emoticon (e.g. ':)))' for ':)').
+	 * 
+	 * @return boolean, true if the emoticon is a proper prefix of the token
+	 */
+	public boolean isPrefix() {
+		return prefix;
+	}
+
+	/**
+	 * Getter for the number of emotive signs (the emoticon's last char) in the token,
+	 * for ':DDDD' this is the length of the repeated tail.
+	 * 
+	 * @return int representing the number of emotive signs
+	 */
+	public int getEmphasis() {
+		return emphasis;
+	}
+}
@@ -0,0 +1,153 @@
+package org.chaiware.emotion.util;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.chaiware.emotion.AffectWord;
+
+/**
+ * Character trie built over the emoticon Lexicon, which finds the exact or the
+ * longest-prefix emoticon of a token in a single walk over the token.
+ * <p>
+ * Nodes are kept in parallel arrays (first child / next sibling), emoticons
+ * which appear more than once in the Lexicon keep their first entry.
+ */
+final class EmoticonTrie {
+
+	private static final int NONE = -1;
+
+	private final char[] label;
+	private final int[] firstChild;
+	private final int[] nextSibling;
+	private final int[] entry;
+	private int nodes;
+
+	private final AffectWord[] emoticons;
+
+	/**
+	 * Class constructor which builds the trie.
+	 *
+	 * @param emoticonList {@link List} of the emoticon {@link AffectWord} instances, in Lexicon file order
+	 */
+	EmoticonTrie(List<AffectWord> emoticonList) {
+		emoticons = emoticonList.toArray(new AffectWord[0]);
+		int capacity = 1;
+		for (AffectWord emoticon : emoticons)
+			capacity += emoticon.getWord().length();
+
+		label = new char[capacity];
+		firstChild = new int[capacity];
+		nextSibling = new int[capacity];
+		entry = new int[capacity];
+		Arrays.fill(firstChild, NONE);
+		Arrays.fill(nextSibling, NONE);
+		Arrays.fill(entry, NONE);
+		nodes = 1; // the root
+
+		for (int i = 0; i < emoticons.length; i++)
+			insert(emoticons[i].getWord(), i);
+	}
+
+	private void insert(String word, int index) {
+		int node = 0;
+		for (int i = 0; i < word.length(); i++) {
+			int child = child(node, word.charAt(i));
+			if (child == NONE) {
+				child = nodes++;
+				label[child] = word.charAt(i);
+				nextSibling[child] = firstChild[node];
+				firstChild[node] = child;
+			}
+			node = child;
+		}
+
+		if (entry[node] == NONE)
+			entry[node] = index;
+	}
+
+	private int child(int node, char c) {
+		int child = firstChild[node];
+		while (child != NONE && label[child] != c)
+			child = nextSibling[child];
+
+		return child;
+	}
+
+	/**
+	 * Finds the emoticon which the token equals, or else the longest emoticon the token starts with.
+	 * <p>
+	 * When lower casing, the trie is walked with the lower cased chars of the token, while the
+	 * emotive signs are still counted in the token as it is and only if there are none, in the
+	 * lower cased token (so 'Wow,' counts one 'w', and 'LOLLL' counts four 'l').
+	 *
+	 * @param text {@link CharSequence} holding the token
+	 * @param start int representing the offset of the token's first char
+	 * @param end int representing the offset after the token's last char
+	 * @param lowerCase boolean, true if the token should be matched as if lower cased
+	 * @return {@link EmoticonMatch}, or null if the token does not start with an emoticon
+	 */
+	EmoticonMatch match(CharSequence text, int start, int end, boolean lowerCase) {
+		EmoticonMatch value = new EmoticonMatch();
+		return match(text, start, end, lowerCase, value) ? value : null;
+	}
+
+	/**
+	 * Finds the emoticon which the token equals, or else the longest emoticon the token starts with,
+	 * as {@link #match(CharSequence, int, int, boolean)} does, filling the given match.
+	 *
+	 * @param text {@link CharSequence} holding the token
+	 * @param start int representing the offset of the token's first char
+	 * @param end int representing the offset after the token's last char
+	 * @param lowerCase boolean, true if the token should be matched as if lower cased
+	 * @param match {@link EmoticonMatch} which receives the match
+	 * @return boolean, false if the token does not start with an emoticon (the match is left as it was)
+	 */
+	boolean match(CharSequence text, int start, int end, boolean lowerCase, EmoticonMatch match) {
+		int matchIndex = findIndex(text, start, end, lowerCase);
+		if (matchIndex == NONE)
+			return false;
+
+		// the emotive sign of an emoticon is its last char (e.g. ')' in ':)')
+		String emoticon = emoticons[matchIndex].getWord();
+		char sign = emoticon.charAt(emoticon.length() - 1);
+		int emphasis = 0;
+		int lowerCasedEmphasis = 0;
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if (c == sign)
+				emphasis++;
+			if (Character.toLowerCase(c) == sign)
+				lowerCasedEmphasis++;
+		}
+		if (emphasis == 0 && lowerCase)
+			emphasis = lowerCasedEmphasis;
+
+		int matchLength = emoticon.length();
+		match.set(emoticons[matchIndex], matchIndex, matchLength, matchLength < end - start, emphasis);
+		return true;
+	}
+
+	/**
+	 * Walks the trie with the token, the matched length is the length of the emoticon found.
+	 *
+	 * @param text {@link CharSequence} holding the token
+	 * @param start int representing the offset of the token's first char
+	 * @param end int representing the offset after the token's last char
+	 * @param lowerCase boolean, true if the token should be matched as if lower cased
+	 * @return int representing the emoticon's index in the emoticon Lexicon, or -1 if the token does not start with an emoticon
+	 */
+	int findIndex(CharSequence text, int start, int end, boolean lowerCase) {
+		int node = 0;
+		int matchIndex = NONE;
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			node = child(node, lowerCase ? Character.toLowerCase(c) : c);
+			if (node == NONE)
+				break;
+			if (entry[node] != NONE)
+				matchIndex = entry[node];
+		}
+
+		return matchIndex;
+	}
+}
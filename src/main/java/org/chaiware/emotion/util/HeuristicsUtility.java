@@ -21,10 +21,21 @@ public class HeuristicsUtility {
 	public static double computeEmoticonCoefForSentence(String sentence) throws IOException {
 
 		List<AffectWord> emoticons = LexicalUtility.getInstance().getEmoticonWords(sentence);
+		if (emoticons.isEmpty())
+			return 1.0;
+
+		// emoticons are ASCII, so one pass counting the ASCII chars serves all of them
+		int[] charCounts = new int[128];
+		for (int i = 0; i < sentence.length(); i++) {
+			char c = sentence.charAt(i);
+			if (c < 128)
+				charCounts[c]++;
+		}
+
 		double value = 1.0;
 		for (AffectWord emot : emoticons) {
 			String emotWord = emot.getWord();
-			value *= 1.0 + (0.2 * countChars(sentence, emotWord.charAt(emotWord.length() - 1)));
+			value *= 1.0 + (0.2 * charCounts[emotWord.charAt(emotWord.length() - 1)]);
 		}
 
 		return value;
@@ -32,14 +43,14 @@ public class HeuristicsUtility {
 
 	/**
 	 * Computes emoticon qoef for the word. Qoef is based on number the of important
-	 * chars in an emotion (e.g. ')' in ':)))))' ).
+	 * chars in an emotion (e.g. ')' in ':)))))' ), when the word starts with the emoticon.
 	 * 
 	 * @param word {@link String} representing the word
 	 * @param emoticon {@link AffectWord} representing the emoticon
 	 * @return double value of the emoticon qoef
 	 */
 	public static double computeEmoticonQoef(String word, AffectWord emoticon) {
-		if (emoticon.startsWithEmoticon()) {
+		if (ParsingUtility.containsFirst(word, emoticon.getWord())) {
 			String emotiveWord = emoticon.getWord();
 			return 1.0 + (0.2 * countChars(word, emotiveWord.charAt(emotiveWord.length() - 1)));
 		} else {
@@ -47,6 +58,21 @@ public class HeuristicsUtility {
 		}
 	}
 
+	/**
+	 * Computes emoticon qoef for the matched word. Qoef is based on the number of important
+	 * chars in an emotion (e.g. ')' in ':)))))' ), which the match has already counted.
+	 * 
+	 * @param match {@link EmoticonMatch} representing the emoticon found in the word
+	 * @return double value of the emoticon qoef
+	 */
+	public static double computeEmoticonQoef(EmoticonMatch match) {
+		if (match.isPrefix()) {
+			return 1.0 + (0.2 * match.getEmphasis());
+		} else {
+			return 1.0;
+		}
+	}
+
 	/**
 	 * Returns true if the word is a negation
 	 * 
@@ -58,6 +84,19 @@ public class HeuristicsUtility {
 		return LexicalUtility.getInstance().isNegation(sentence);
 	}
 
+	/**
+	 * Computes the intensity modifier based on the classification of the previous word.
+	 * 
+	 * @param classification int representing the word, as {@link TokenDictionary#classify(CharSequence, int, int)} returns it
+	 * @return double representing the modifier
+	 */
+	public static double computeModifier(int classification) {
+		if (TokenDictionary.hasRole(classification, TokenDictionary.INTENSITY_MODIFIER))
+			return 1.5;
+		else
+			return 1.0;
+	}
+
 	/**
 	 * Computes the intensity modifier based on the word.
 	 * 
@@ -106,6 +145,31 @@ public class HeuristicsUtility {
 		return text.contains("?!") || text.contains("!?");
 	}
 
+	/**
+	 * Computes the exclamation qoef of the scanned sentence.
+	 * 
+	 * @param features {@link SentenceFeatures} of the sentence
+	 * @return double representing the exclamation qoef
+	 */
+	public static double computeExclamationQoef(SentenceFeatures features) {
+		return 1.0 + (0.2 * features.getExclamations());
+	}
+
+	/**
+	 * Computes the upper case qoeficient of the word between the offsets of the scanned sentence.
+	 * 
+	 * @param features {@link SentenceFeatures} of the sentence holding the word
+	 * @param start int representing the offset of the word's first char
+	 * @param end int representing the offset after the word's last char
+	 * @return double representing the upper case qoeficient
+	 */
+	public static double computeUpperCasedQoef(SentenceFeatures features, int start, int end) {
+		if (features.isUpperCased(start, end))
+			return 1.5;
+		else
+			return 1.0;
+	}
+
 	/** Returns true when all of the word is upper cased */
 	private static boolean isUpperCasedWord(String word) {
 		for (int i = 0; i < word.length(); i++) {
@@ -3,9 +3,12 @@ package org.chaiware.emotion.util;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import org.chaiware.emotion.AffectLexicon;
 import org.chaiware.emotion.AffectWord;
 import org.chaiware.util.PropertiesManager;
 import org.slf4j.Logger;
@@ -13,74 +16,129 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Utility class for some text processing algorithms (Singleton)
+ * <p>
+ * The Lexicon is loaded exactly once, by the first call to {@link #getInstance()}, and is
+ * never modified afterwards, so the instance can be used by many threads without locking.
+ * It is loaded from the precompiled {@link LexiconImage} when the build made one, and parsed
+ * from the Lexicon text files otherwise.
  */
 public class LexicalUtility {
 
     private static Logger logger = LoggerFactory.getLogger(LexicalUtility.class);
-	private static LexicalUtility instance;
+	private static volatile LexicalUtility instance;
 
-	private String FILENAME_LEXICON = "/data/lex/lexicon.txt";
-	private String FILENAME_EMOTICONS = "/data/lex/lexicon_emoticons.txt";
+	static final String FILENAME_LEXICON = "/data/lex/lexicon.txt";
+	static final String FILENAME_EMOTICONS = "/data/lex/lexicon_emoticons.txt";
+	static final String FILENAME_IMAGE = "/data/lex/lexicon.bin";
 	private String FILENAME_PROPERTIES = "/data/lex/keywords.xml";
 
-	private List<AffectWord> affectWords;
-	private List<AffectWord> emoticons;
+	private final AffectLexicon affectLexicon;
+	private final AffectLexicon emoticonLexicon;
+	private final List<AffectWord> emoticons;
+	private final LexiconIndex affectWordsIndex;
+	private final EmoticonTrie emoticonTrie;
+	private final EmoticonAutomaton emoticonAutomaton;
+	private final TokenDictionary tokenDictionary;
 
-	private List<String> negations;
-	private List<String> intensityModifiers;
+	private final List<String> negations;
+	private final List<String> intensityModifiers;
 
-	private final double NORMALISATOR = 1;
+	private static final double NORMALISATOR = 1;
 
 	private LexicalUtility() throws IOException {
-		affectWords = new ArrayList();
-		emoticons = new ArrayList();
 		PropertiesManager pm = new PropertiesManager(FILENAME_PROPERTIES);
 		negations = ParsingUtility.splitWords(pm.getProperty("negations"), ", ");
 		intensityModifiers = ParsingUtility.splitWords(pm.getProperty("intensity.modifiers"), ", ");
-		parseLexiconFile(affectWords, FILENAME_LEXICON);
-		parseLexiconFile(emoticons, FILENAME_EMOTICONS);
+		URL imageUrl = LexicalUtility.class.getResource(FILENAME_IMAGE);
+		if (imageUrl != null) {
+			LexiconImage image = LexiconImage.load(imageUrl);
+			affectLexicon = image.getAffectLexicon();
+			affectWordsIndex = image.getAffectWordsIndex();
+			emoticonLexicon = image.getEmoticonLexicon();
+			logger.debug("Loaded lexicon image: {}", imageUrl);
+		} else {
+			affectLexicon = parseLexiconFile(FILENAME_LEXICON, 4096);
+			emoticonLexicon = parseLexiconFile(FILENAME_EMOTICONS, 128);
+			affectWordsIndex = indexLexicon(affectLexicon);
+		}
+		emoticons = Collections.unmodifiableList(emoticonLexicon.getAffectWords());
+		emoticonTrie = new EmoticonTrie(emoticons);
+		emoticonAutomaton = new EmoticonAutomaton(emoticons);
+		tokenDictionary = new TokenDictionary(affectLexicon, affectWordsIndex, emoticonLexicon, emoticonTrie,
+				negations, intensityModifiers);
 
 		logger.debug("Lexical Utility Instantiated");
 	}
 
 	/**
-	 * Returns the Singleton instance of the {@link LexicalUtility}.
+	 * Returns the Singleton instance of the {@link LexicalUtility}, loading the Lexicon on first use.
+	 * Only the first use is synchronized, later calls just read the instance.
 	 * 
 	 * @return the instance of {@link LexicalUtility}
 	 * @throws IOException
 	 */
 	public static LexicalUtility getInstance() throws IOException {
-		if (instance == null) {
-			instance = new LexicalUtility();
+		LexicalUtility value = instance;
+		if (value == null) {
+			synchronized (LexicalUtility.class) {
+				value = instance;
+				if (value == null) {
+					value = new LexicalUtility();
+					instance = value;
+				}
+			}
 		}
 
-		return instance;
+		return value;
 	}
 
-	private void parseLexiconFile(List<AffectWord> wordList, String fileName) throws IOException {
+	/**
+	 * Parses the Lexicon text file
+	 *
+	 * @param fileName {@link String} representing the classpath location of the file
+	 * @param expectedSize int representing the expected number of entries
+	 * @return {@link AffectLexicon} of the entries, in Lexicon file order
+	 * @throws IOException
+	 */
+	static AffectLexicon parseLexiconFile(String fileName, int expectedSize) throws IOException {
 
-      try (BufferedReader in = new BufferedReader(new InputStreamReader(this.getClass().getResourceAsStream(fileName), "UTF8"))) {
+      AffectLexicon lexicon = new AffectLexicon(expectedSize);
+      try (BufferedReader in = new BufferedReader(new InputStreamReader(LexicalUtility.class.getResourceAsStream(fileName), "UTF8"))) {
 
         String line = in.readLine();
         while (line != null) {
-          AffectWord record = parseLine(line);
-          wordList.add(record);
+          parseLine(lexicon, line);
           line = in.readLine();
         }
 
         logger.debug("Parsed lexicon file: {}", fileName);
       }
+
+      return lexicon;
     }
 
 	/**
-	 * Parses one line of the Lexicon and returns the {@link AffectWord}
+	 * Indexes the Lexicon by word with a minimal perfect hash, the first entry of a word which
+	 * appears more than once wins
+	 *
+	 * @param lexicon {@link AffectLexicon} whose ids are in Lexicon file order
+	 * @return {@link LexiconIndex} of the words
+	 */
+	static LexiconIndex indexLexicon(AffectLexicon lexicon) {
+		LexiconIndex index = new LexiconIndex(lexicon);
+
+		logger.debug("Indexed {} lexicon words, ignored {} duplicates", index.size(), index.getDuplicates());
+		return index;
+	}
+
+	/**
+	 * Parses one line of the Lexicon and adds its entry to the Lexicon
 	 * 
+	 * @param lexicon {@link AffectLexicon} which receives the entry
 	 * @param line {@link String} representing the line of the Lexicon
-	 * @return {@link AffectWord}
 	 */
-	private AffectWord parseLine(String line) {
+	private static void parseLine(AffectLexicon lexicon, String line) {
 
-		AffectWord value;
 		String[] text = line.split(" ");
 		String word = text[0];
 		double generalWeight = Double.parseDouble(text[1]);
@@ -90,26 +148,45 @@ public class LexicalUtility {
 		double fearWeight = Double.parseDouble(text[5]);
 		double disgustWeight = Double.parseDouble(text[6]);
 		double surpriseWeight = Double.parseDouble(text[7]);
-		value = new AffectWord(word, generalWeight, happinessWeight,
-				sadnessWeight, angerWeight, fearWeight, disgustWeight, surpriseWeight, NORMALISATOR);
-
-		return value;
+		lexicon.add(word, generalWeight * NORMALISATOR, happinessWeight * NORMALISATOR,
+				sadnessWeight * NORMALISATOR, angerWeight * NORMALISATOR, fearWeight * NORMALISATOR,
+				disgustWeight * NORMALISATOR, surpriseWeight * NORMALISATOR);
 	}
 
 	/**
-	 * Returns the instance of {@link AffectWord} for the given word.
+	 * Returns an instance of {@link AffectWord} for the given word, created from its Lexicon entry.
+	 * When the Lexicon holds the word more than once, the first entry is returned.
 	 * 
 	 * @param word {@link String} representing the word
 	 * @return {@link AffectWord}
 	 */
 	public AffectWord getAffectWord(String word) {
-		for (AffectWord affectWord : affectWords) {
-			if (affectWord.getWord().equals(word)) {
-				return affectWord.clone();
-			}
-		}
+		return toAffectWord(affectLexicon, affectWordsIndex.get(word));
+	}
 
-		return null;
+	/**
+	 * Returns the id of the given word in the Lexicon (see {@link #getAffectLexicon()}).
+	 * When the Lexicon holds the word more than once, the id of the first entry is returned.
+	 * 
+	 * @param word {@link String} representing the word
+	 * @return int representing the id, or {@link AffectLexicon#NONE} if the word is not in the Lexicon
+	 */
+	public int getWordId(String word) {
+		return affectWordsIndex.get(word);
+	}
+
+	/**
+	 * Returns the id in the Lexicon of the word between the offsets of the text, matched case
+	 * insensitively: the word's chars are lower cased one by one, independently of the default
+	 * locale, and no {@link String} is created.
+	 * 
+	 * @param text {@link CharSequence} holding the word
+	 * @param start int representing the offset of the word's first char
+	 * @param end int representing the offset after the word's last char
+	 * @return int representing the id, or {@link AffectLexicon#NONE} if the word is not in the Lexicon
+	 */
+	public int getWordId(CharSequence text, int start, int end) {
+		return affectWordsIndex.getIgnoreCase(text, start, end);
 	}
 
 	/**
@@ -119,37 +196,85 @@ public class LexicalUtility {
 	 * @return {@link AffectWord}
 	 */
 	public AffectWord getEmoticonAffectWord(String word) {
-		for (AffectWord affectWordEmoticon : emoticons) {
-			if (affectWordEmoticon.getWord().equals(word)) {
-				return affectWordEmoticon.clone();
-			}
-		}
-
-		for (AffectWord affectWordEmoticon : emoticons) {
-			String emoticon = affectWordEmoticon.getWord();
-			if (ParsingUtility.containsFirst(word, emoticon)) {
-				affectWordEmoticon.setStartsWithEmoticon(true);
-				return affectWordEmoticon.clone();
-			}
-		}
+		EmoticonMatch match = matchEmoticon(word);
+		if (match != null)
+			return match.getAffectWord();
 
 		return null;
 	}
 
+	/**
+	 * Finds the emoticon which the word equals or, if there is none, the longest
+	 * emoticon the word starts with (e.g. ':D' for ':DDDD'), in a single walk over the word.
+	 * 
+	 * @param word {@link String} representing the word
+	 * @return {@link EmoticonMatch}, or null if the word does not start with an emoticon
+	 */
+	public EmoticonMatch matchEmoticon(String word) {
+		return matchEmoticon(word, false);
+	}
+
+	/**
+	 * Finds the emoticon which the word equals or, if there is none, the longest
+	 * emoticon the word starts with, optionally matching the word as if it was lower cased.
+	 * 
+	 * @param word {@link String} representing the word
+	 * @param lowerCase boolean, true if the word should be matched as if lower cased
+	 * @return {@link EmoticonMatch}, or null if the word does not start with an emoticon
+	 */
+	public EmoticonMatch matchEmoticon(String word, boolean lowerCase) {
+		return emoticonTrie.match(word, 0, word.length(), lowerCase);
+	}
+
+	/**
+	 * Finds the emoticon which the word between the offsets of the text equals or, if there is none,
+	 * the longest emoticon the word starts with, optionally matching the word as if it was lower cased.
+	 * 
+	 * @param text {@link CharSequence} holding the word
+	 * @param start int representing the offset of the word's first char
+	 * @param end int representing the offset after the word's last char
+	 * @param lowerCase boolean, true if the word should be matched as if lower cased
+	 * @return {@link EmoticonMatch}, or null if the word does not start with an emoticon
+	 */
+	public EmoticonMatch matchEmoticon(CharSequence text, int start, int end, boolean lowerCase) {
+		return emoticonTrie.match(text, start, end, lowerCase);
+	}
+
+	/**
+	 * Finds the emoticon which the word between the offsets of the text equals or, if there is none,
+	 * the longest emoticon the word starts with, filling the given match instead of creating one.
+	 * 
+	 * @param text {@link CharSequence} holding the word
+	 * @param start int representing the offset of the word's first char
+	 * @param end int representing the offset after the word's last char
+	 * @param lowerCase boolean, true if the word should be matched as if lower cased
+	 * @param match {@link EmoticonMatch} which receives the match
+	 * @return boolean, false if the word does not start with an emoticon
+	 */
+	public boolean matchEmoticon(CharSequence text, int start, int end, boolean lowerCase, EmoticonMatch match) {
+		return emoticonTrie.match(text, start, end, lowerCase, match);
+	}
+
 	/**
 	 * Returns all instances of {@link AffectWord} which represent emoticons for the given sentence.
 	 * 
 	 * @param sentence {@link String} representing the sentence
-	 * @return the list of {@link AffectWord} instances
+	 * @return the list of {@link AffectWord} instances, in the order of the emoticon Lexicon
 	 */
 	public List<AffectWord> getEmoticonWords(String sentence) {
 
+		final boolean[] found = new boolean[emoticonAutomaton.size()];
+		scanEmoticons(sentence, new EmoticonListener() {
+			@Override
+			public void emoticonFound(AffectWord emoticon, int emoticonIndex, int start, int end) {
+				found[emoticonIndex] = true;
+			}
+		});
+
 		List<AffectWord> value = new ArrayList ();
-		for (AffectWord emoticon : emoticons) {
-			String emoticonWord = emoticon.getWord();
-			if (sentence.contains(emoticonWord)) {
-				emoticon.setStartsWithEmoticon(true);
-				value.add(emoticon);
+		for (int i = 0; i < found.length; i++) {
+			if (found[i]) {
+				value.add(emoticons.get(i));
 			}
 		}
 
@@ -157,12 +282,58 @@ public class LexicalUtility {
 	}
 
 	/**
-	 * Returns all instances of {@link AffectWord}
+	 * Finds every occurrence of every emoticon in the text, in one pass over the text
+	 * (occurrences may overlap, e.g. ':-)' also contains '-)'). The analysis does not use it,
+	 * it matches the emoticons at the start of each chunk only, see
+	 * {@link #matchEmoticon(CharSequence, int, int, boolean, EmoticonMatch)}.
+	 * 
+	 * @param text {@link CharSequence} representing the text
+	 * @param listener {@link EmoticonListener} which receives each occurrence with its offsets
+	 */
+	public void scanEmoticons(CharSequence text, EmoticonListener listener) {
+		emoticonAutomaton.scan(text, listener);
+	}
+
+	/**
+	 * Returns instances of {@link AffectWord} for all the entries of the Lexicon, created on each call
 	 * 
-	 * @return the list of {@link AffectWord} instances
+	 * @return the unmodifiable list of {@link AffectWord} instances, in Lexicon file order
 	 */
 	public List<AffectWord> getAffectWords() {
-		return affectWords;
+		return Collections.unmodifiableList(affectLexicon.getAffectWords());
+	}
+
+	/**
+	 * Returns the Lexicon of the words, whose entries are found by {@link #getWordId(String)}
+	 * 
+	 * @return {@link AffectLexicon} of the words
+	 */
+	public AffectLexicon getAffectLexicon() {
+		return affectLexicon;
+	}
+
+	/**
+	 * Returns the Lexicon of the emoticons, in which an emoticon's id is its index in the emoticon Lexicon file
+	 * 
+	 * @return {@link AffectLexicon} of the emoticons
+	 */
+	public AffectLexicon getEmoticonLexicon() {
+		return emoticonLexicon;
+	}
+
+	/**
+	 * Returns the dictionary which classifies a word (negation, intensity modifier, affect word or
+	 * emoticon) with a single lookup
+	 * 
+	 * @return {@link TokenDictionary} of the words of the Lexicons and of the keywords
+	 */
+	public TokenDictionary getTokenDictionary() {
+		return tokenDictionary;
+	}
+
+	/** Creates the {@link AffectWord} of the entry, or returns null when there is no entry */
+	private static AffectWord toAffectWord(AffectLexicon lexicon, int id) {
+		return id != AffectLexicon.NONE ? lexicon.getAffectWord(id) : null;
 	}
 
 	/**
@@ -184,7 +355,7 @@ public class LexicalUtility {
 	public boolean isIntensityModifier(String word) {
 		return intensityModifiers.contains(word);
 	}
-	
+
 	/**
 	 * Returns true if the word and the negation are in the same
 	 * part of the sentence, i.e. divided by a interpunction mark.
@@ -0,0 +1,44 @@
+package org.chaiware.emotion.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.chaiware.emotion.AffectLexicon;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Build time step which compiles the Lexicon text files into the {@link LexiconImage}
+ * which {@link LexicalUtility} loads instead of parsing them (run by the build, see pom.xml).
+ * The minimal perfect hash of the words is computed here, and the build fails when the
+ * words can not be hashed perfectly.
+ */
+public class LexiconCompiler {
+
+	private static Logger logger = LoggerFactory.getLogger(LexiconCompiler.class);
+
+	/**
+	 * Compiles the Lexicon text files found on the classpath into the image.
+	 *
+	 * @param args the path of the image to write
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			logger.info("Please send an argument with the path of the lexicon image to write");
+			System.exit(1);
+		}
+		Path file = Paths.get(args[0]);
+
+		AffectLexicon affectLexicon = LexicalUtility.parseLexiconFile(LexicalUtility.FILENAME_LEXICON, 4096);
+		AffectLexicon emoticonLexicon = LexicalUtility.parseLexiconFile(LexicalUtility.FILENAME_EMOTICONS, 128);
+		LexiconIndex affectWordsIndex = LexicalUtility.indexLexicon(affectLexicon);
+
+		if (file.getParent() != null)
+			Files.createDirectories(file.getParent());
+		LexiconImage.write(file, affectLexicon, affectWordsIndex, emoticonLexicon);
+		logger.info("Compiled {} lexicon words ({} duplicates ignored, the first entry wins) and {} emoticons into {}",
+				affectWordsIndex.size(), affectWordsIndex.getDuplicates(), emoticonLexicon.size(), file);
+	}
+}
@@ -0,0 +1,203 @@
+package org.chaiware.emotion.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import org.chaiware.emotion.AffectLexicon;
+
+/**
+ * Precompiled binary image of the Lexicons (words and emoticons), written at build time by
+ * {@link LexiconCompiler} and queried in place at runtime, so loading it does no parsing.
+ * <p>
+ * When the image is a file it is memory mapped, otherwise (e.g. inside a jar) it is read
+ * once into a direct buffer. Either way the weights, words and index stay off the heap.
+ * <p>
+ * Layout (little endian): a header of magic, version and number of sections, padded to 16
+ * bytes, then one section per Lexicon. A section starts with its number of entries, number
+ * of chars, and the seed, number of buckets and number of positions of its index (0 buckets
+ * when the Lexicon is not indexed), padded to 32 bytes, followed by the weights (see
+ * {@link AffectLexicon#getWeights()}), the word ends, the chars, the pilots and the ids of
+ * the index (see {@link LexiconIndex}), and is padded to 8 bytes.
+ */
+final class LexiconImage {
+
+	/** "T2EL" */
+	static final int MAGIC = 0x5432454C;
+
+	/** Version of the layout, to be incremented on any change of it */
+	static final int VERSION = 2;
+
+	private static final int SECTIONS = 2;
+	private static final int HEADER_SIZE = 16;
+	private static final int SECTION_HEADER_SIZE = 32;
+
+	private final AffectLexicon affectLexicon;
+	private final LexiconIndex affectWordsIndex;
+	private final AffectLexicon emoticonLexicon;
+
+	private LexiconImage(ByteBuffer image) throws IOException {
+		image.order(ByteOrder.LITTLE_ENDIAN);
+		if (image.limit() < HEADER_SIZE || image.getInt(0) != MAGIC)
+			throw new IOException("Not a lexicon image");
+		if (image.getInt(4) != VERSION)
+			throw new IOException("Unsupported lexicon image version " + image.getInt(4) + ", expected " + VERSION);
+		if (image.getInt(8) != SECTIONS)
+			throw new IOException("Lexicon image has " + image.getInt(8) + " sections, expected " + SECTIONS);
+
+		int offset = HEADER_SIZE;
+		int size = image.getInt(offset);
+		int charCount = image.getInt(offset + 4);
+		int seed = image.getInt(offset + 8);
+		int buckets = image.getInt(offset + 12);
+		int positions = image.getInt(offset + 16);
+		affectLexicon = readLexicon(image, offset, size, charCount);
+		int pilotsOffset = indexOffset(offset, size, charCount);
+		affectWordsIndex = new LexiconIndex(affectLexicon, seed, slice(image, pilotsOffset, buckets * 4).asIntBuffer(),
+				slice(image, pilotsOffset + buckets * 4, positions * 4).asIntBuffer());
+		offset = sectionEnd(offset, size, charCount, buckets + positions);
+
+		size = image.getInt(offset);
+		charCount = image.getInt(offset + 4);
+		emoticonLexicon = readLexicon(image, offset, size, charCount);
+	}
+
+	/**
+	 * Loads the image, memory mapping it when it is a file.
+	 *
+	 * @param url {@link URL} of the image
+	 * @return {@link LexiconImage}
+	 * @throws IOException when the image can not be read or is not a lexicon image of this version
+	 */
+	static LexiconImage load(URL url) throws IOException {
+		if ("file".equals(url.getProtocol())) {
+			try (FileChannel channel = FileChannel.open(Paths.get(url.toURI()), StandardOpenOption.READ)) {
+				return new LexiconImage(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+			} catch (URISyntaxException e) {
+				throw new IOException("Invalid lexicon image location " + url, e);
+			}
+		}
+
+		try (InputStream in = url.openStream()) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int count;
+			while ((count = in.read(buffer)) != -1)
+				bytes.write(buffer, 0, count);
+
+			ByteBuffer image = ByteBuffer.allocateDirect(bytes.size());
+			image.put(bytes.toByteArray());
+			((Buffer) image).clear();
+			return new LexiconImage(image.asReadOnlyBuffer());
+		}
+	}
+
+	/**
+	 * Writes the image of the Lexicons to the file.
+	 *
+	 * @param file {@link Path} of the image
+	 * @param affectLexicon {@link AffectLexicon} of the words
+	 * @param affectWordsIndex {@link LexiconIndex} of the words
+	 * @param emoticonLexicon {@link AffectLexicon} of the emoticons
+	 * @throws IOException
+	 */
+	static void write(Path file, AffectLexicon affectLexicon, LexiconIndex affectWordsIndex,
+			AffectLexicon emoticonLexicon) throws IOException {
+
+		int indexSize = affectWordsIndex.getPilots().limit() + affectWordsIndex.getIds().limit();
+		int wordsEnd = sectionEnd(HEADER_SIZE, affectLexicon.size(), affectLexicon.getChars().limit(), indexSize);
+		int imageEnd = sectionEnd(wordsEnd, emoticonLexicon.size(), emoticonLexicon.getChars().limit(), 0);
+
+		ByteBuffer image = ByteBuffer.allocate(imageEnd).order(ByteOrder.LITTLE_ENDIAN);
+		image.putInt(0, MAGIC);
+		image.putInt(4, VERSION);
+		image.putInt(8, SECTIONS);
+		writeLexicon(image, HEADER_SIZE, affectLexicon, affectWordsIndex);
+		writeLexicon(image, wordsEnd, emoticonLexicon, null);
+
+		Files.write(file, image.array());
+	}
+
+	/** @return {@link AffectLexicon} of the words */
+	AffectLexicon getAffectLexicon() {
+		return affectLexicon;
+	}
+
+	/** @return {@link LexiconIndex} of the words */
+	LexiconIndex getAffectWordsIndex() {
+		return affectWordsIndex;
+	}
+
+	/** @return {@link AffectLexicon} of the emoticons */
+	AffectLexicon getEmoticonLexicon() {
+		return emoticonLexicon;
+	}
+
+	private static AffectLexicon readLexicon(ByteBuffer image, int offset, int size, int charCount) {
+		int weightsOffset = offset + SECTION_HEADER_SIZE;
+		int wordEndsOffset = weightsOffset + size * 2 * AffectLexicon.ROW * 8;
+		int charsOffset = wordEndsOffset + size * 4;
+		DoubleBuffer weights = slice(image, weightsOffset, size * 2 * AffectLexicon.ROW * 8).asDoubleBuffer();
+		IntBuffer wordEnds = slice(image, wordEndsOffset, size * 4).asIntBuffer();
+		CharBuffer chars = slice(image, charsOffset, charCount * 2).asCharBuffer();
+		return new AffectLexicon(weights, wordEnds, chars);
+	}
+
+	private static void writeLexicon(ByteBuffer image, int offset, AffectLexicon lexicon, LexiconIndex index) {
+		int size = lexicon.size();
+		CharBuffer chars = lexicon.getChars();
+		image.putInt(offset, size);
+		image.putInt(offset + 4, chars.limit());
+
+		int weightsOffset = offset + SECTION_HEADER_SIZE;
+		int wordEndsOffset = weightsOffset + size * 2 * AffectLexicon.ROW * 8;
+		int charsOffset = wordEndsOffset + size * 4;
+		slice(image, weightsOffset, size * 2 * AffectLexicon.ROW * 8).asDoubleBuffer().put(lexicon.getWeights());
+		slice(image, wordEndsOffset, size * 4).asIntBuffer().put(lexicon.getWordEnds());
+		slice(image, charsOffset, chars.limit() * 2).asCharBuffer().put(chars);
+
+		if (index != null) {
+			IntBuffer pilots = index.getPilots();
+			IntBuffer ids = index.getIds();
+			image.putInt(offset + 8, index.getSeed());
+			image.putInt(offset + 12, pilots.limit());
+			image.putInt(offset + 16, ids.limit());
+			int pilotsOffset = indexOffset(offset, size, chars.limit());
+			slice(image, pilotsOffset, pilots.limit() * 4).asIntBuffer().put(pilots);
+			slice(image, pilotsOffset + pilots.limit() * 4, ids.limit() * 4).asIntBuffer().put(ids);
+		}
+	}
+
+	/** The pilots and the ids of the index follow the chars, aligned to 4 bytes */
+	private static int indexOffset(int offset, int size, int charCount) {
+		return align(offset + SECTION_HEADER_SIZE + size * 2 * AffectLexicon.ROW * 8 + size * 4 + charCount * 2, 4);
+	}
+
+	private static int sectionEnd(int offset, int size, int charCount, int indexSize) {
+		return align(indexOffset(offset, size, charCount) + indexSize * 4, 8);
+	}
+
+	private static int align(int offset, int alignment) {
+		return (offset + alignment - 1) & -alignment;
+	}
+
+	private static ByteBuffer slice(ByteBuffer image, int offset, int length) {
+		ByteBuffer value = image.duplicate();
+		((Buffer) value).limit(offset + length);
+		((Buffer) value).position(offset);
+		return value.slice().order(ByteOrder.LITTLE_ENDIAN);
+	}
+}
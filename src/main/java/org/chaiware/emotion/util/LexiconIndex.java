@@ -0,0 +1,256 @@
+package org.chaiware.emotion.util;
+
+import java.nio.Buffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.chaiware.emotion.AffectLexicon;
+
+/**
+ * Minimal perfect hash of the words of an {@link AffectLexicon} to the ids of their entries
+ * (hash and displace): the words are spread over buckets of about {@value #BUCKET_SIZE} words,
+ * and each bucket has a pilot, found when the index is built, which sends its words to
+ * positions no other word uses. There are exactly as many positions as words, so a lookup is
+ * one hash of the word, one read of the pilot and of the id, and one compare with the word of
+ * the Lexicon, with no collision chains and no spare capacity.
+ * <p>
+ * Duplicate entries: the Lexicon may contain the same word more than once, the
+ * <b>first</b> entry (in file order) is the one kept, later duplicates are ignored.
+ * This is the same result the former linear "first match" scan returned.
+ * <p>
+ * The index is built by {@link LexiconCompiler} when the Lexicon image is compiled, and read
+ * in place from the image at runtime (or built on startup when there is no image).
+ */
+final class LexiconIndex {
+
+	/** Average number of words in a bucket */
+	static final int BUCKET_SIZE = 4;
+
+	private static final int MAX_SEEDS = 64;
+	private static final int MAX_PILOT = 1 << 16;
+
+	private final AffectLexicon lexicon;
+	private final int seed;
+	private final IntBuffer pilots;
+	private final IntBuffer ids;
+	private int duplicates;
+
+	/**
+	 * Class constructor which builds the index of the words of the Lexicon.
+	 *
+	 * @param lexicon {@link AffectLexicon} whose entries are indexed
+	 * @throws IllegalStateException when no perfect hash of the words could be found, i.e. some
+	 * distinct words hash the same with every seed tried
+	 */
+	LexiconIndex(AffectLexicon lexicon) {
+		this.lexicon = lexicon;
+
+		// the first entry of a word wins
+		Map<String, Integer> firstIds = new HashMap<String, Integer>();
+		int[] keyIds = new int[lexicon.size()];
+		int keys = 0;
+		for (int id = 0; id < lexicon.size(); id++) {
+			if (firstIds.putIfAbsent(lexicon.getWord(id), id) == null)
+				keyIds[keys++] = id;
+			else
+				duplicates++;
+		}
+
+		keyIds = Arrays.copyOf(keyIds, keys);
+		int[] pilotTable = new int[Math.max(1, keys / BUCKET_SIZE)];
+		int[] idTable = new int[keys];
+		int value = 0;
+		while (!build(keyIds, value, pilotTable, idTable)) {
+			if (++value == MAX_SEEDS)
+				throw new IllegalStateException("No perfect hash of the " + keys + " lexicon words was found with "
+						+ MAX_SEEDS + " seeds, some distinct words hash the same");
+		}
+
+		seed = value;
+		pilots = IntBuffer.wrap(pilotTable);
+		ids = IntBuffer.wrap(idTable);
+	}
+
+	/**
+	 * Class constructor which uses the tables, as they are returned by {@link #getPilots()} and
+	 * {@link #getIds()}, in place (e.g. the tables of a precompiled Lexicon image).
+	 *
+	 * @param lexicon {@link AffectLexicon} whose entries are indexed
+	 * @param seed int representing the seed of the hash, see {@link #getSeed()}
+	 * @param pilots {@link IntBuffer} holding the pilot of each bucket
+	 * @param ids {@link IntBuffer} holding the id of the word at each position
+	 */
+	LexiconIndex(AffectLexicon lexicon, int seed, IntBuffer pilots, IntBuffer ids) {
+		if (pilots.limit() == 0)
+			throw new IllegalArgumentException("Lexicon index has no buckets");
+
+		this.lexicon = lexicon;
+		this.seed = seed;
+		this.pilots = pilots;
+		this.ids = ids;
+	}
+
+	/**
+	 * Returns the indexed id of the given word.
+	 *
+	 * @param word {@link String} representing the word
+	 * @return int representing the id, or {@link AffectLexicon#NONE} if the word is not in the index
+	 */
+	int get(String word) {
+		return find(word, 0, word.length(), false);
+	}
+
+	/**
+	 * Returns the indexed id of the word between the offsets of the text,
+	 * matched as if it was lower cased (char by char, whatever the default locale), without
+	 * creating a {@link String}.
+	 *
+	 * @param text {@link CharSequence} holding the word
+	 * @param start int representing the offset of the word's first char
+	 * @param end int representing the offset after the word's last char
+	 * @return int representing the id, or {@link AffectLexicon#NONE} if the lower cased word is not in the index
+	 */
+	int getIgnoreCase(CharSequence text, int start, int end) {
+		return find(text, start, end, true);
+	}
+
+	/**
+	 * @return the seed of the hash of the words
+	 */
+	int getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return read only view of the pilots, one per bucket
+	 */
+	IntBuffer getPilots() {
+		IntBuffer value = pilots.asReadOnlyBuffer();
+		((Buffer) value).clear();
+		return value;
+	}
+
+	/**
+	 * @return read only view of the ids, one per position
+	 */
+	IntBuffer getIds() {
+		IntBuffer value = ids.asReadOnlyBuffer();
+		((Buffer) value).clear();
+		return value;
+	}
+
+	/**
+	 * @return the number of distinct words in the index
+	 */
+	int size() {
+		return ids.limit();
+	}
+
+	/**
+	 * @return the number of duplicate entries which were ignored when the index was built
+	 */
+	int getDuplicates() {
+		return duplicates;
+	}
+
+	private int find(CharSequence text, int start, int end, boolean lowerCase) {
+		int positions = ids.limit();
+		if (positions == 0)
+			return AffectLexicon.NONE;
+
+		long h = hash(text, start, end, lowerCase, seed);
+		int id = ids.get(position(h, pilots.get(bucket(h, pilots.limit())), positions));
+		return lexicon.wordEquals(id, text, start, end, lowerCase) ? id : AffectLexicon.NONE;
+	}
+
+	/**
+	 * Looks for a pilot for each bucket, the biggest buckets first.
+	 *
+	 * @return boolean, true if every bucket got a pilot (the tables are then filled)
+	 */
+	private boolean build(int[] keyIds, int seed, int[] pilotTable, int[] idTable) {
+		int keys = keyIds.length;
+		int buckets = pilotTable.length;
+		long[] hashes = new long[keys];
+		int[] bucketSizes = new int[buckets];
+		for (int k = 0; k < keys; k++) {
+			String word = lexicon.getWord(keyIds[k]);
+			hashes[k] = hash(word, 0, word.length(), false, seed);
+			bucketSizes[bucket(hashes[k], buckets)]++;
+		}
+
+		// keys grouped by bucket, and buckets ordered by size (descending)
+		int[] bucketStarts = new int[buckets + 1];
+		for (int b = 0; b < buckets; b++)
+			bucketStarts[b + 1] = bucketStarts[b] + bucketSizes[b];
+		int[] bucketKeys = new int[keys];
+		int[] filled = Arrays.copyOf(bucketStarts, buckets);
+		for (int k = 0; k < keys; k++)
+			bucketKeys[filled[bucket(hashes[k], buckets)]++] = k;
+		long[] order = new long[buckets];
+		for (int b = 0; b < buckets; b++)
+			order[b] = ((long) (Integer.MAX_VALUE - bucketSizes[b]) << 32) | b;
+		Arrays.sort(order);
+
+		boolean[] taken = new boolean[keys];
+		int[] placed = new int[keys];
+		for (long entry : order) {
+			int b = (int) entry;
+			int from = bucketStarts[b];
+			int to = bucketStarts[b + 1];
+			int pilot = 0;
+			int count = 0;
+			while (count < to - from) {
+				if (pilot == MAX_PILOT)
+					return false;
+				count = 0;
+				for (int i = from; i < to; i++) {
+					int position = position(hashes[bucketKeys[i]], pilot, keys);
+					if (taken[position])
+						break;
+					taken[position] = true;
+					placed[count++] = position;
+				}
+				if (count < to - from) {
+					for (int i = 0; i < count; i++)
+						taken[placed[i]] = false;
+					pilot++;
+				}
+			}
+
+			pilotTable[b] = pilot;
+			for (int i = from; i < to; i++)
+				idTable[placed[i - from]] = keyIds[bucketKeys[i]];
+		}
+
+		return true;
+	}
+
+	/** FNV-1a over the chars (optionally lower cased), finished by a 64 bit mix, also used by {@link TokenDictionary} */
+	static long hash(CharSequence text, int start, int end, boolean lowerCase, int seed) {
+		long h = 0xCBF29CE484222325L ^ (seed * 0x9E3779B97F4A7C15L);
+		for (int k = start; k < end; k++) {
+			char c = text.charAt(k);
+			h = (h ^ (lowerCase ? Character.toLowerCase(c) : c)) * 0x100000001B3L;
+		}
+
+		return mix(h);
+	}
+
+	private static int bucket(long hash, int buckets) {
+		return (int) (((hash & 0xFFFFFFFFL) * buckets) >>> 32);
+	}
+
+	private static int position(long hash, int pilot, int positions) {
+		long h = mix(hash ^ ((pilot + 1) * 0x9E3779B97F4A7C15L));
+		return (int) (((h >>> 32) * positions) >>> 32);
+	}
+
+	private static long mix(long h) {
+		h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+		h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return h ^ (h >>> 33);
+	}
+}
@@ -0,0 +1,143 @@
+package org.chaiware.emotion.util;
+
+import java.util.Arrays;
+
+/**
+ * Reusable record of the features of one sentence which the heuristic rules read, filled by a
+ * single scan of the sentence: the number of exclamation marks, whether a "?!" or a "!?" appears,
+ * and, for each offset, the number of lower case chars and of interpunction marks (", . ; : -")
+ * which come before it in the sentence. So a word is upper cased when no lower case char lies
+ * between its offsets, and two words are in the same part of the sentence when no interpunction
+ * mark lies between them, both answered in O(1) without reading the text again.
+ * <p>
+ * Runs of repeated chars are not recorded: the emphasis of an emoticon (e.g. ':DDDD') is the
+ * number of its emotive sign anywhere in the token, not the length of a run, and it is counted
+ * while the token is matched against the emoticons (see {@link EmoticonMatch#getEmphasis()}).
+ * <p>
+ * A scan may be limited to some of the features (see {@link #scan(CharSequence, int, int, int)}),
+ * the others are then left as they were. The arrays grow to the longest sentence scanned and
+ * are reused afterwards. A record is not thread safe, each thread should use its own.
+ */
+public final class SentenceFeatures {
+
+	/** Feature of the number of exclamation marks, see {@link #getExclamations()} */
+	public static final int EXCLAMATIONS = 1;
+	/** Feature of the "?!" and "!?" marks, see {@link #hasExclamationQuestionMarks()} */
+	public static final int EXCLAMATION_QUESTION_MARKS = 2;
+	/** Feature of the lower case chars, see {@link #isUpperCased(int, int)} */
+	public static final int LOWER_CASES = 4;
+	/** Feature of the interpunction marks, see {@link #getClause(int)} */
+	public static final int CLAUSES = 8;
+	/** All the features */
+	public static final int ALL = EXCLAMATIONS | EXCLAMATION_QUESTION_MARKS | LOWER_CASES | CLAUSES;
+
+	private int start;
+	private int exclamations;
+	private boolean exclamationQuestionMarks;
+	private int[] lowerCases = new int[64];
+	private int[] clauses = new int[64];
+
+	/**
+	 * Scans the sentence between the offsets of the text for all the features, replacing the
+	 * features of the previous one.
+	 *
+	 * @param text {@link CharSequence} holding the sentence
+	 * @param start int representing the offset of the sentence's first char
+	 * @param end int representing the offset after the sentence's last char
+	 */
+	public void scan(CharSequence text, int start, int end) {
+		scan(text, start, end, ALL);
+	}
+
+	/**
+	 * Scans the sentence between the offsets of the text for the given features, replacing
+	 * these features of the previous one.
+	 *
+	 * @param text {@link CharSequence} holding the sentence
+	 * @param start int representing the offset of the sentence's first char
+	 * @param end int representing the offset after the sentence's last char
+	 * @param features int representing the features to scan for, a mask of the features above
+	 */
+	public void scan(CharSequence text, int start, int end, int features) {
+		if (features == 0)
+			return;
+
+		this.start = start;
+		int length = end - start;
+		boolean lowerCased = (features & LOWER_CASES) != 0;
+		boolean clauseMarks = (features & CLAUSES) != 0;
+		if ((lowerCased || clauseMarks) && (lowerCases.length <= length)) {
+			int capacity = Math.max(lowerCases.length * 2, length + 1);
+			lowerCases = Arrays.copyOf(lowerCases, capacity);
+			clauses = Arrays.copyOf(clauses, capacity);
+		}
+
+		int exclamationCount = 0;
+		boolean pairs = false;
+		int lowerCaseCount = 0;
+		int clauseCount = 0;
+		char previous = 0;
+		for (int i = 0; i < length; i++) {
+			if (lowerCased)
+				lowerCases[i] = lowerCaseCount;
+			if (clauseMarks)
+				clauses[i] = clauseCount;
+
+			char c = text.charAt(start + i);
+			if (c == '!') {
+				exclamationCount++;
+				pairs |= (previous == '?');
+			} else if (c == '?') {
+				pairs |= (previous == '!');
+			} else if ((c == ',') || (c == '.') || (c == ';') || (c == ':') || (c == '-')) {
+				clauseCount++;
+			} else if (Character.isLowerCase(c)) {
+				lowerCaseCount++;
+			}
+			previous = c;
+		}
+		if (lowerCased)
+			lowerCases[length] = lowerCaseCount;
+		if (clauseMarks)
+			clauses[length] = clauseCount;
+
+		exclamations = exclamationCount;
+		exclamationQuestionMarks = pairs;
+	}
+
+	/**
+	 * @return the number of exclamation marks in the sentence
+	 */
+	public int getExclamations() {
+		return exclamations;
+	}
+
+	/**
+	 * @return boolean, true if there is a "!?" or a "?!" in the sentence
+	 */
+	public boolean hasExclamationQuestionMarks() {
+		return exclamationQuestionMarks;
+	}
+
+	/**
+	 * Returns true when none of the chars between the offsets is lower case.
+	 *
+	 * @param start int representing the offset of the word's first char
+	 * @param end int representing the offset after the word's last char
+	 * @return boolean, true if the word is upper cased
+	 */
+	public boolean isUpperCased(int start, int end) {
+		return lowerCases[end - this.start] == lowerCases[start - this.start];
+	}
+
+	/**
+	 * Getter for the part of the sentence at the offset: the number of interpunction marks
+	 * before it in the sentence.
+	 *
+	 * @param offset int representing an offset in the sentence (its end included)
+	 * @return int representing the part of the sentence
+	 */
+	public int getClause(int offset) {
+		return clauses[offset - start];
+	}
+}
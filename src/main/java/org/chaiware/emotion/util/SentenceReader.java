@@ -0,0 +1,136 @@
+package org.chaiware.emotion.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.text.BreakIterator;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Reads sentences from a {@link Reader} incrementally, so text of any size can be
+ * parsed into sentences (as {@link ParsingUtility#parseSentences(String)} does) while
+ * only the sentence being read is kept in memory.
+ * <p>
+ * New lines are read as spaces. A sentence is only returned once enough of the text following
+ * it has been read (the sentence {@link BreakIterator} decides some boundaries by looking
+ * ahead), so the boundary is the one found when parsing the whole text.
+ * A sentence longer than the maximum length is cut at its last space.
+ */
+public class SentenceReader {
+
+	private static final int DEFAULT_MAX_SENTENCE_LENGTH = 64 * 1024;
+
+	/** Number of chars which must follow a sentence boundary before the boundary is trusted */
+	private static final int LOOKAHEAD = 256;
+
+	private static final int NONE = -1;
+
+	private final Reader in;
+	private final int maxSentenceLength;
+	private final char[] chunk = new char[4096];
+	private final StringBuilder buffer = new StringBuilder();
+	private final Deque<String> sentences = new ArrayDeque<String>();
+	private final BreakIterator boundary = BreakIterator.getSentenceInstance();
+	private final TextTokenizer.TextIterator iterator = new TextTokenizer.TextIterator();
+	/** Offset of the buffer up to which the text holds no sentence boundary (the buffer starts a sentence) */
+	private int searched = 0;
+	/** First boundary found after the searched offset, not trusted yet, or NONE if the text must be scanned */
+	private int pending = NONE;
+	private boolean endOfInput = false;
+
+	/**
+	 * Class constructor which reads sentences of at most 64K chars.
+	 * 
+	 * @param in {@link Reader} of the text
+	 */
+	public SentenceReader(Reader in) {
+		this(in, DEFAULT_MAX_SENTENCE_LENGTH);
+	}
+
+	/**
+	 * Class constructor.
+	 * 
+	 * @param in {@link Reader} of the text
+	 * @param maxSentenceLength int representing the maximum number of chars in a sentence
+	 */
+	public SentenceReader(Reader in, int maxSentenceLength) {
+		if (maxSentenceLength < 1)
+			throw new IllegalArgumentException("maxSentenceLength must be positive: " + maxSentenceLength);
+		this.in = in;
+		this.maxSentenceLength = maxSentenceLength;
+	}
+
+	/**
+	 * Reads the next sentence.
+	 * 
+	 * @return {@link String} representing the sentence, or null at the end of the text
+	 * @throws IOException
+	 */
+	public String readSentence() throws IOException {
+		while (sentences.isEmpty()) {
+			if (endOfInput) {
+				if (buffer.length() == 0)
+					return null;
+				split(true);
+			} else {
+				fill();
+				split(endOfInput);
+			}
+		}
+
+		return sentences.poll();
+	}
+
+	private void fill() throws IOException {
+		int read = in.read(chunk);
+		if (read < 0) {
+			endOfInput = true;
+			return;
+		}
+
+		for (int i = 0; i < read; i++) {
+			if (chunk[i] == '\n')
+				chunk[i] = ' ';
+		}
+		buffer.append(chunk, 0, read);
+	}
+
+	/**
+	 * Moves the complete sentences of the buffer to the queue, all of them at the end of the input.
+	 * The buffer is scanned from the searched offset only, and only once the pending boundary may
+	 * be trusted, so each char is scanned a bounded number of times whatever the size of the reads.
+	 */
+	private void split(boolean all) {
+		int length = buffer.length();
+		int limit = all ? length : length - LOOKAHEAD;
+		if (all || pending == NONE || pending <= limit) {
+			boundary.setText(iterator.set(buffer, 0, length));
+			int start = 0;
+			int end = boundary.following(searched);
+			while ((end != BreakIterator.DONE) && (end <= limit)) {
+				sentences.add(buffer.substring(start, end));
+				start = end;
+				end = boundary.next();
+			}
+
+			// no boundary is left up to the limit, the one after it (the end of the text at least)
+			// is trusted once enough text follows it
+			buffer.delete(0, start);
+			searched = Math.max(0, Math.max(searched, limit) - start);
+			pending = (end == BreakIterator.DONE) ? NONE : end - start;
+			if (start > 0)
+				return;
+		}
+
+		if (!all && length > maxSentenceLength + LOOKAHEAD) {
+			int cut = buffer.lastIndexOf(" ", maxSentenceLength - 1) + 1;
+			if (cut == 0)
+				cut = maxSentenceLength;
+			sentences.add(buffer.substring(0, cut));
+			buffer.delete(0, cut);
+			// the rest is scanned again from its start, as a text of its own
+			searched = 0;
+			pending = NONE;
+		}
+	}
+}
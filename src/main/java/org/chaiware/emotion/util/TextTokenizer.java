@@ -0,0 +1,524 @@
+package org.chaiware.emotion.util;
+
+import java.text.BreakIterator;
+import java.text.CharacterIterator;
+import java.util.Arrays;
+
+/**
+ * Reusable tokenizer which walks a text once and yields the offsets of its sentences,
+ * of the space separated chunks of each sentence, and of the words of each chunk,
+ * without creating substrings. New lines are treated as spaces.
+ * <p>
+ * The boundaries are the ones of {@link ParsingUtility#parseSentences(String)},
+ * {@link ParsingUtility#splitWords(String, String)} (by " ") and {@link ParsingUtility#parseWords(String)}.
+ * Pure ASCII text is segmented by rules equivalent to the ones of the {@link BreakIterator}
+ * and never touches it; a text without sentence terminators is a single sentence. Other text,
+ * and the few ASCII sentence endings whose boundary depends on further context (e.g. a period
+ * followed by a symbol), go through a {@link BreakIterator} reused by the tokenizer.
+ * <p>
+ * Usage:
+ * <pre>
+ * tokenizer.reset(text);
+ * while (tokenizer.nextSentence())
+ *     while (tokenizer.nextChunk())
+ *         while (tokenizer.nextWord())
+ *             ... tokenizer.getWordStart(), tokenizer.getWordEnd(), tokenizer.getWordKind()
+ * </pre>
+ * A tokenizer is not thread safe, each thread should use its own.
+ */
+public class TextTokenizer {
+
+	/** Kind of a word made of letters and/or digits (e.g. "don't", "3.5", "$5") */
+	public static final int WORD = 0;
+	/** Kind of a punctuation mark or a symbol */
+	public static final int PUNCTUATION = 1;
+	/** Kind of a run of white space (a tab, as chunks hold no spaces) */
+	public static final int SPACE = 2;
+
+	private static final int UNKNOWN = -1;
+
+	private CharSequence text;
+	private int textEnd;
+	private boolean ascii;
+
+	private int[] sentenceEnds = new int[16];
+	private int sentenceCount;
+	private int sentenceIndex;
+	private int sentenceStart;
+	private int sentenceEnd;
+
+	private int chunkStart;
+	private int chunkEnd;
+	private boolean chunkAscii;
+
+	private int wordStart;
+	private int wordEnd;
+	private int wordKind;
+
+	private final TextIterator iterator = new TextIterator();
+	private BreakIterator sentenceBoundary;
+	private BreakIterator wordBoundary;
+
+	/**
+	 * Starts tokenizing the text, which is parsed into sentences.
+	 *
+	 * @param text {@link CharSequence} representing the text
+	 */
+	public void reset(CharSequence text) {
+		this.text = text;
+		textEnd = text.length();
+		ascii = isAscii(0, textEnd);
+		sentenceCount = 0;
+		if (!ascii || !splitAsciiSentences())
+			splitSentences();
+		startSentences();
+	}
+
+	/**
+	 * Starts tokenizing the part of the text between the offsets, as one single sentence.
+	 *
+	 * @param text {@link CharSequence} representing the text
+	 * @param start int representing the offset of the sentence's first char
+	 * @param end int representing the offset after the sentence's last char
+	 */
+	public void resetSentence(CharSequence text, int start, int end) {
+		this.text = text;
+		textEnd = end;
+		ascii = isAscii(start, end);
+		sentenceCount = 0;
+		addSentenceEnd(end);
+		startSentences();
+		sentenceStart = start;
+	}
+
+	private void startSentences() {
+		sentenceIndex = -1;
+		sentenceStart = 0;
+		sentenceEnd = 0;
+	}
+
+	/**
+	 * Moves to the next sentence of the text.
+	 *
+	 * @return boolean, false if there are no more sentences
+	 */
+	public boolean nextSentence() {
+		if (sentenceIndex + 1 >= sentenceCount)
+			return false;
+
+		if (sentenceIndex >= 0)
+			sentenceStart = sentenceEnd;
+		sentenceIndex++;
+		sentenceEnd = sentenceEnds[sentenceIndex];
+		chunkStart = sentenceStart;
+		chunkEnd = sentenceStart;
+		return true;
+	}
+
+	/**
+	 * Moves to the next space separated chunk of the current sentence.
+	 *
+	 * @return boolean, false if there are no more chunks in the sentence
+	 */
+	public boolean nextChunk() {
+		int i = chunkEnd;
+		while (i < sentenceEnd && isSpace(text.charAt(i)))
+			i++;
+		if (i >= sentenceEnd)
+			return false;
+
+		chunkStart = i;
+		while (i < sentenceEnd && !isSpace(text.charAt(i)))
+			i++;
+		chunkEnd = i;
+		chunkAscii = ascii || isAscii(chunkStart, chunkEnd);
+		wordStart = chunkStart;
+		wordEnd = chunkStart;
+		if (!chunkAscii) {
+			if (wordBoundary == null)
+				wordBoundary = BreakIterator.getWordInstance();
+			wordBoundary.setText(iterator.set(text, chunkStart, chunkEnd));
+			wordBoundary.first();
+		}
+		return true;
+	}
+
+	/**
+	 * Moves to the next word (or punctuation mark) of the current chunk.
+	 *
+	 * @return boolean, false if there are no more words in the chunk
+	 */
+	public boolean nextWord() {
+		if (wordEnd >= chunkEnd)
+			return false;
+
+		wordStart = wordEnd;
+		if (chunkAscii) {
+			wordEnd = asciiWordEnd(wordStart, chunkEnd);
+		} else {
+			// the word iterator was set on the chunk by nextChunk(), and ends on the previous word
+			wordEnd = wordBoundary.next();
+			if (wordEnd == BreakIterator.DONE)
+				wordEnd = chunkEnd;
+		}
+		wordKind = UNKNOWN;
+		return true;
+	}
+
+	/**
+	 * @return the text being tokenized
+	 */
+	public CharSequence getText() {
+		return text;
+	}
+
+	/**
+	 * @return the offset of the current sentence's first char
+	 */
+	public int getSentenceStart() {
+		return sentenceStart;
+	}
+
+	/**
+	 * @return the offset after the current sentence's last char
+	 */
+	public int getSentenceEnd() {
+		return sentenceEnd;
+	}
+
+	/**
+	 * @return the offset of the current chunk's first char
+	 */
+	public int getChunkStart() {
+		return chunkStart;
+	}
+
+	/**
+	 * @return the offset after the current chunk's last char
+	 */
+	public int getChunkEnd() {
+		return chunkEnd;
+	}
+
+	/**
+	 * @return the offset of the current word's first char
+	 */
+	public int getWordStart() {
+		return wordStart;
+	}
+
+	/**
+	 * @return the offset after the current word's last char
+	 */
+	public int getWordEnd() {
+		return wordEnd;
+	}
+
+	/**
+	 * @return the kind of the current word: {@link #WORD}, {@link #PUNCTUATION} or {@link #SPACE}
+	 */
+	public int getWordKind() {
+		if (wordKind == UNKNOWN) {
+			wordKind = PUNCTUATION;
+			for (int i = wordStart; i < wordEnd; i++) {
+				char c = text.charAt(i);
+				if (Character.isLetterOrDigit(c)) {
+					wordKind = WORD;
+					break;
+				}
+				if (Character.isWhitespace(c))
+					wordKind = SPACE;
+			}
+		}
+
+		return wordKind;
+	}
+
+	private void addSentenceEnd(int end) {
+		if (sentenceCount == sentenceEnds.length)
+			sentenceEnds = Arrays.copyOf(sentenceEnds, sentenceCount * 2);
+		sentenceEnds[sentenceCount++] = end;
+	}
+
+	private void splitSentences() {
+		sentenceCount = 0;
+		if (sentenceBoundary == null)
+			sentenceBoundary = BreakIterator.getSentenceInstance();
+		sentenceBoundary.setText(iterator.set(text, 0, textEnd));
+		sentenceBoundary.first();
+		for (int end = sentenceBoundary.next(); end != BreakIterator.DONE; end = sentenceBoundary.next())
+			addSentenceEnd(end);
+	}
+
+	/**
+	 * Sentence rules of the {@link BreakIterator} for ASCII text: a sentence ends after
+	 * '!' or '?' (and the terminators, periods and closing marks following them, then
+	 * spaces), or after a period (and the periods and closing marks following it)
+	 * followed by spaces and an upper case letter, or by several spaces and any letter.
+	 *
+	 * @return boolean, false if a boundary depends on more context, and the text must be
+	 *         left to the {@link BreakIterator}
+	 */
+	private boolean splitAsciiSentences() {
+		int i = 0;
+		while (i < textEnd) {
+			char c = text.charAt(i);
+			if (c == '!' || c == '?') {
+				i++;
+				while (i < textEnd && (isTerminator(text.charAt(i)) || text.charAt(i) == '.' || isClosing(text.charAt(i))))
+					i++;
+				while (i < textEnd && isBlank(text.charAt(i)))
+					i++;
+				if (i < textEnd)
+					addSentenceEnd(i);
+			} else if (c == '.') {
+				i++;
+				boolean quoted = false;
+				while (i < textEnd && (text.charAt(i) == '.' || isClosing(text.charAt(i)))) {
+					quoted |= isQuote(text.charAt(i));
+					i++;
+				}
+				if (i == textEnd)
+					break;
+
+				char next = text.charAt(i);
+				if (isTerminator(next))
+					continue;
+				if (isBlank(next)) {
+					int blanks = i;
+					while (i < textEnd && isBlank(text.charAt(i)))
+						i++;
+					if (i == textEnd)
+						break;
+					blanks = i - blanks;
+					next = text.charAt(i);
+					if (isUpperCase(next) || (blanks > 1 && isLowerCase(next)))
+						addSentenceEnd(i);
+					else if (!isLowerCase(next) && !isDigit(next))
+						return false;
+				} else if (quoted || !(isLetter(next) || isDigit(next))) {
+					return false;
+				}
+			} else {
+				i++;
+			}
+		}
+
+		addSentenceEnd(textEnd);
+		return true;
+	}
+
+	/**
+	 * Word rules of the {@link BreakIterator} for ASCII text: letters joined by the marks
+	 * in "-_'\"." form a word, digits joined by the marks in ",.'\"" form a number; a word
+	 * is made of words and numbers which follow each other, optionally with a
+	 * prefix ('$', '#' or '.') and a suffix (e.g. '%'). Each other mark is a word of its own.
+	 */
+	private int asciiWordEnd(int start, int end) {
+		char c = text.charAt(start);
+		if (isLetter(c) || isDigit(c))
+			return lettersAndNumbersEnd(start, end);
+		if (isNumberPrefix(c))
+			return lettersAndNumbersEnd(start + 1, end, false);
+		if (isBlank(c)) {
+			int i = start + 1;
+			while (i < end && isBlank(text.charAt(i)))
+				i++;
+			return i;
+		}
+
+		return start + 1;
+	}
+
+	private int lettersAndNumbersEnd(int start, int end) {
+		return lettersAndNumbersEnd(start, end, true);
+	}
+
+	private int lettersAndNumbersEnd(int i, int end, boolean letters) {
+		if (letters && i < end && isLetter(text.charAt(i)))
+			i = lettersEnd(i, end);
+		while (i < end && isDigit(text.charAt(i))) {
+			i = digitsEnd(i, end);
+			if (i < end && isLetter(text.charAt(i))) {
+				i = lettersEnd(i, end);
+			} else {
+				if (i < end && isNumberSuffix(text.charAt(i)))
+					i++;
+				break;
+			}
+		}
+
+		return i;
+	}
+
+	private int lettersEnd(int i, int end) {
+		do {
+			i++;
+			while (i < end && isLetter(text.charAt(i)))
+				i++;
+		} while (i + 1 < end && isMidWord(text.charAt(i)) && isLetter(text.charAt(i + 1)));
+
+		return i;
+	}
+
+	private int digitsEnd(int i, int end) {
+		do {
+			i++;
+			while (i < end && isDigit(text.charAt(i)))
+				i++;
+		} while (i + 1 < end && isMidNumber(text.charAt(i)) && isDigit(text.charAt(i + 1)));
+
+		return i;
+	}
+
+	/** Printable ASCII, tabs and new lines (which are read as spaces) */
+	private boolean isAscii(int start, int end) {
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if ((c < 0x20 || c > 0x7e) && c != '\t' && c != '\n')
+				return false;
+		}
+
+		return true;
+	}
+
+	private static boolean isSpace(char c) {
+		return c == ' ' || c == '\n';
+	}
+
+	private static boolean isBlank(char c) {
+		return isSpace(c) || c == '\t';
+	}
+
+	private static boolean isLetter(char c) {
+		return isUpperCase(c) || isLowerCase(c);
+	}
+
+	private static boolean isUpperCase(char c) {
+		return c >= 'A' && c <= 'Z';
+	}
+
+	private static boolean isLowerCase(char c) {
+		return c >= 'a' && c <= 'z';
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isTerminator(char c) {
+		return c == '!' || c == '?';
+	}
+
+	private static boolean isClosing(char c) {
+		return c == ')' || c == ']' || c == '}' || isQuote(c);
+	}
+
+	private static boolean isQuote(char c) {
+		return c == '\'' || c == '"';
+	}
+
+	private static boolean isMidWord(char c) {
+		return c == '-' || c == '_' || c == '\'' || c == '"' || c == '.';
+	}
+
+	private static boolean isMidNumber(char c) {
+		return c == ',' || c == '.' || c == '\'' || c == '"';
+	}
+
+	private static boolean isNumberPrefix(char c) {
+		return c == '$' || c == '#' || c == '.';
+	}
+
+	private static boolean isNumberSuffix(char c) {
+		return c == '%' || c == '&';
+	}
+
+	/**
+	 * {@link CharacterIterator} over a range of a {@link CharSequence}, which reads new lines as
+	 * spaces, so the {@link BreakIterator} sees the text as it is tokenized without a copy of it.
+	 */
+	static final class TextIterator implements CharacterIterator {
+
+		private CharSequence text;
+		private int begin;
+		private int end;
+		private int index;
+
+		TextIterator set(CharSequence text, int begin, int end) {
+			this.text = text;
+			this.begin = begin;
+			this.end = end;
+			this.index = begin;
+			return this;
+		}
+
+		@Override
+		public char first() {
+			index = begin;
+			return current();
+		}
+
+		@Override
+		public char last() {
+			index = end > begin ? end - 1 : end;
+			return current();
+		}
+
+		@Override
+		public char current() {
+			if (index < begin || index >= end)
+				return DONE;
+			char c = text.charAt(index);
+			return c == '\n' ? ' ' : c;
+		}
+
+		@Override
+		public char next() {
+			if (index < end)
+				index++;
+			return current();
+		}
+
+		@Override
+		public char previous() {
+			if (index <= begin)
+				return DONE;
+			index--;
+			return current();
+		}
+
+		@Override
+		public char setIndex(int position) {
+			if (position < begin || position > end)
+				throw new IllegalArgumentException("Invalid index " + position);
+			index = position;
+			return current();
+		}
+
+		@Override
+		public int getBeginIndex() {
+			return begin;
+		}
+
+		@Override
+		public int getEndIndex() {
+			return end;
+		}
+
+		@Override
+		public int getIndex() {
+			return index;
+		}
+
+		@Override
+		public Object clone() {
+			return new TextIterator().set(text, begin, end).moveTo(index);
+		}
+
+		private TextIterator moveTo(int position) {
+			index = position;
+			return this;
+		}
+	}
+}
@@ -0,0 +1,197 @@
+package org.chaiware.emotion.util;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.chaiware.emotion.AffectLexicon;
+
+/**
+ * Dictionary which classifies a word of the text with a single probe: the word is hashed once
+ * (lower cased) and the entry found holds all the roles of the word, with the id of its Lexicon
+ * entry, packed in one int (read with {@link #hasRole(int, int)} and {@link #id(int)}).
+ * <p>
+ * The roles are the ones the separate lookups of {@link LexicalUtility} give:
+ * <ul>
+ * <li>{@link #NEGATION}, matched case insensitively</li>
+ * <li>{@link #INTENSITY_MODIFIER}, matched case sensitively (a word with upper case chars is none)</li>
+ * <li>{@link #AFFECT_WORD}, an entry of the words' Lexicon, matched case insensitively</li>
+ * <li>{@link #EMOTICON}, an entry of the emoticons' Lexicon which the word equals or starts with,
+ * matched case insensitively, for a word which is not in the words' Lexicon</li>
+ * </ul>
+ * A word which is not in the dictionary may still start with an emoticon (e.g. "lolz"), it is
+ * then looked up in the {@link EmoticonTrie}, which only walks its first chars.
+ * <p>
+ * The dictionary is built when the Lexicon is loaded, from the Lexicons and the keyword lists
+ * (whose entries are lower case), and is immutable afterwards.
+ */
+public final class TokenDictionary {
+
+	/** Role of a negation (e.g. "not") */
+	public static final int NEGATION = 1;
+	/** Role of an intensity modifier (e.g. "extremely") */
+	public static final int INTENSITY_MODIFIER = 2;
+	/** Role of an entry of the words' Lexicon */
+	public static final int AFFECT_WORD = 4;
+	/** Role of an entry of the emoticons' Lexicon */
+	public static final int EMOTICON = 8;
+
+	private static final int ROLE_BITS = 4;
+	private static final int ROLES = (1 << ROLE_BITS) - 1;
+
+	private final char[] chars;
+	private final int[] keyEnds;
+	private final int[] classes;
+	private final int[] table;
+	private final int mask;
+	private final EmoticonTrie emoticonTrie;
+
+	/**
+	 * Class constructor which builds the dictionary of the words of the Lexicons and of the keywords.
+	 *
+	 * @param affectLexicon {@link AffectLexicon} of the words
+	 * @param affectWordsIndex {@link LexiconIndex} of the words
+	 * @param emoticonLexicon {@link AffectLexicon} of the emoticons
+	 * @param emoticonTrie {@link EmoticonTrie} of the emoticons
+	 * @param negations {@link List} of the negations
+	 * @param intensityModifiers {@link List} of the intensity modifiers
+	 */
+	TokenDictionary(AffectLexicon affectLexicon, LexiconIndex affectWordsIndex, AffectLexicon emoticonLexicon,
+			EmoticonTrie emoticonTrie, List<String> negations, List<String> intensityModifiers) {
+		this.emoticonTrie = emoticonTrie;
+
+		// only lower case words can be found by a lower cased probe
+		Set<String> words = new LinkedHashSet<String>();
+		for (int id = 0; id < affectLexicon.size(); id++)
+			addLowerCased(words, affectLexicon.getWord(id));
+		for (int id = 0; id < emoticonLexicon.size(); id++)
+			addLowerCased(words, emoticonLexicon.getWord(id));
+		for (String word : negations)
+			addLowerCased(words, word);
+		for (String word : intensityModifiers)
+			addLowerCased(words, word);
+
+		int length = 0;
+		for (String word : words)
+			length += word.length();
+		chars = new char[length];
+		keyEnds = new int[words.size()];
+		classes = new int[words.size()];
+		table = new int[Integer.highestOneBit(Math.max(1, words.size()) * 2 - 1) << 1];
+		mask = table.length - 1;
+
+		int key = 0;
+		int end = 0;
+		for (String word : words) {
+			word.getChars(0, word.length(), chars, end);
+			end += word.length();
+			keyEnds[key] = end;
+			classes[key] = classOf(word, affectWordsIndex, negations, intensityModifiers);
+
+			int slot = (int) LexiconIndex.hash(word, 0, word.length(), false, 0) & mask;
+			while (table[slot] != 0)
+				slot = (slot + 1) & mask;
+			table[slot] = key + 1;
+			key++;
+		}
+	}
+
+	/**
+	 * Classifies the word between the offsets of the text, without creating any object.
+	 *
+	 * @param text {@link CharSequence} holding the word
+	 * @param start int representing the offset of the word's first char
+	 * @param end int representing the offset after the word's last char
+	 * @return int representing the roles and the id of the word (0 when it has no role)
+	 */
+	public int classify(CharSequence text, int start, int end) {
+		long h = LexiconIndex.hash(text, start, end, true, 0);
+		for (int slot = (int) h & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+			int key = table[slot] - 1;
+			int keyStart = (key == 0) ? 0 : keyEnds[key - 1];
+			if (keyEnds[key] - keyStart != end - start)
+				continue;
+
+			boolean exact = true;
+			int k = 0;
+			while (k < end - start) {
+				char c = text.charAt(start + k);
+				char lower = Character.toLowerCase(c);
+				if (lower != chars[keyStart + k])
+					break;
+				exact &= (c == lower);
+				k++;
+			}
+			if (k == end - start)
+				return exact ? classes[key] : classes[key] & ~INTENSITY_MODIFIER;
+		}
+
+		int emoticonId = emoticonTrie.findIndex(text, start, end, true);
+		return (emoticonId == AffectLexicon.NONE) ? 0 : classOf(emoticonId, EMOTICON);
+	}
+
+	/**
+	 * @return the number of words in the dictionary
+	 */
+	public int size() {
+		return keyEnds.length;
+	}
+
+	/**
+	 * Returns true if the classified word has one of the given roles.
+	 *
+	 * @param classification int returned by {@link #classify(CharSequence, int, int)}
+	 * @param roles int representing the roles, e.g. {@link #AFFECT_WORD} | {@link #EMOTICON}
+	 * @return boolean, true if the word has one of the roles
+	 */
+	public static boolean hasRole(int classification, int roles) {
+		return (classification & roles) != 0;
+	}
+
+	/**
+	 * Returns the id of the classified word in the words' Lexicon when it is an {@link #AFFECT_WORD},
+	 * or else in the emoticons' Lexicon when it is an {@link #EMOTICON}.
+	 *
+	 * @param classification int returned by {@link #classify(CharSequence, int, int)}
+	 * @return int representing the id, or {@link AffectLexicon#NONE} if the word is in no Lexicon
+	 */
+	public static int id(int classification) {
+		return hasRole(classification, AFFECT_WORD | EMOTICON) ? classification >>> ROLE_BITS : AffectLexicon.NONE;
+	}
+
+	/** The roles and the id of a word of the dictionary, as the separate lookups give them */
+	private int classOf(String word, LexiconIndex affectWordsIndex, List<String> negations, List<String> intensityModifiers) {
+		int roles = 0;
+		if (negations.contains(word))
+			roles |= NEGATION;
+		if (intensityModifiers.contains(word))
+			roles |= INTENSITY_MODIFIER;
+
+		// the words' Lexicon wins over the emoticons'
+		int id = affectWordsIndex.get(word);
+		if (id != AffectLexicon.NONE) {
+			roles |= AFFECT_WORD;
+		} else {
+			id = emoticonTrie.findIndex(word, 0, word.length(), true);
+			if (id != AffectLexicon.NONE)
+				roles |= EMOTICON;
+			else
+				id = 0;
+		}
+
+		return classOf(id, roles);
+	}
+
+	private static int classOf(int id, int roles) {
+		return (id << ROLE_BITS) | (roles & ROLES);
+	}
+
+	private static void addLowerCased(Set<String> words, String word) {
+		for (int k = 0; k < word.length(); k++) {
+			if (Character.toLowerCase(word.charAt(k)) != word.charAt(k))
+				return;
+		}
+
+		words.add(word);
+	}
+}
@@ -0,0 +1,56 @@
+package test;
+
+import org.chaiware.emotion.EmotionCache;
+import org.chaiware.emotion.EmotionalState;
+import org.chaiware.emotion.Empathyscope;
+
+/**
+ * Cache test: texts which share a key of the {@link EmotionCache} (the same text padded with
+ * white space) must get the same result with the cache on as with the cache off.
+ */
+public class SentSenseCache {
+
+	private static String[] texts = {
+			"damn it",
+			"Wow, great",
+			"I am so happy today! Nothing can go wrong.",
+			"I am not afraid of the dark" };
+
+	private static String[] paddings = { "", " ", "  ", "   ", "\n", " \n ", "\t", "\r\n", "\u000B", " \t " };
+
+	public static void main(String[] args) throws Exception {
+		Empathyscope empathyscope = Empathyscope.getInstance();
+
+		int mismatches = 0;
+		for (String text : texts) {
+			for (String padding : paddings) {
+				for (String padded : new String[] { padding + text, text + padding, text.replace(" ", " " + padding) }) {
+					empathyscope.setCache(null);
+					String expected = describe(empathyscope.feel(padded));
+
+					// warm the cache with every padding of the text, then ask for this one
+					empathyscope.setCache(new EmotionCache(1024, 1024));
+					for (String other : paddings)
+						empathyscope.feel(other + text);
+					String cached = describe(empathyscope.feel(padded));
+
+					if (!expected.equals(cached)) {
+						mismatches++;
+						System.out.println("MISMATCH: [" + padded + "] " + expected + " / " + cached);
+					}
+				}
+			}
+		}
+		empathyscope.setCache(null);
+
+		System.out.println("mismatches: " + mismatches);
+		if (mismatches > 0)
+			System.exit(1);
+	}
+
+	private static String describe(EmotionalState arg) {
+		return arg.getGeneralWeight() + " " + arg.getValence() + " " + arg.getHappinessWeight() + " "
+				+ arg.getSadnessWeight() + " " + arg.getAngerWeight() + " " + arg.getFearWeight() + " "
+				+ arg.getDisgustWeight() + " " + arg.getSurpriseWeight();
+	}
+}
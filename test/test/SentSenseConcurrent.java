@@ -0,0 +1,105 @@
+package test;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.chaiware.emotion.EmotionalState;
+import org.chaiware.emotion.Empathyscope;
+
+/**
+ * Concurrency stress test: many threads hit the first use of the {@link Empathyscope}
+ * at the same moment, then analyse the baseline corpora in different orders. Every
+ * result must be identical to the one of a single threaded run.
+ */
+public class SentSenseConcurrent {
+
+	private static String[] fileNames = {
+			"test/test/inputBaseline/angry.txt",
+			"test/test/inputBaseline/disgusted.txt",
+			"test/test/inputBaseline/fear.txt",
+			"test/test/inputBaseline/joy.txt",
+			"test/test/inputBaseline/sad.txt",
+			"test/test/inputBaseline/surprised.txt" };
+
+	private static int threadCount = 32;
+
+	public static void main(String[] args) throws Exception {
+		final List<String> lines = readLines();
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(threadCount);
+
+		List<Future<String[]>> futures = new ArrayList<Future<String[]>>();
+		for (int t = 0; t < threadCount; t++) {
+			final long seed = t;
+			futures.add(pool.submit(new Callable<String[]>() {
+				@Override
+				public String[] call() throws Exception {
+					List<Integer> order = new ArrayList<Integer>();
+					for (int i = 0; i < lines.size(); i++)
+						order.add(i);
+					Collections.shuffle(order, new Random(seed));
+
+					start.await();
+					Empathyscope empathyscope = Empathyscope.getInstance();
+					String[] results = new String[lines.size()];
+					for (int i : order)
+						results[i] = describe(empathyscope.feel(lines.get(i)));
+
+					return results;
+				}
+			}));
+		}
+
+		long time = System.currentTimeMillis();
+		start.countDown();
+		List<String[]> concurrentResults = new ArrayList<String[]>();
+		for (Future<String[]> future : futures)
+			concurrentResults.add(future.get());
+		pool.shutdown();
+		System.out.println(threadCount + " threads analysed " + lines.size() + " lines each in "
+				+ (System.currentTimeMillis() - time) + " ms");
+
+		int mismatches = 0;
+		for (int i = 0; i < lines.size(); i++) {
+			String expected = describe(Empathyscope.getInstance().feel(lines.get(i)));
+			for (String[] results : concurrentResults) {
+				if (!expected.equals(results[i])) {
+					mismatches++;
+					System.out.println("MISMATCH: " + lines.get(i));
+				}
+			}
+		}
+
+		System.out.println("mismatches: " + mismatches);
+		if (mismatches > 0)
+			System.exit(1);
+	}
+
+	private static List<String> readLines() throws Exception {
+		List<String> lines = new ArrayList<String>();
+		for (String fileName : fileNames) {
+			BufferedReader in = new BufferedReader(new FileReader(fileName));
+			String line;
+			while ((line = in.readLine()) != null)
+				lines.add(line);
+			in.close();
+		}
+
+		return lines;
+	}
+
+	private static String describe(EmotionalState arg) {
+		return arg.getGeneralWeight() + " " + arg.getValence() + " " + arg.getHappinessWeight() + " "
+				+ arg.getSadnessWeight() + " " + arg.getAngerWeight() + " " + arg.getFearWeight() + " "
+				+ arg.getDisgustWeight() + " " + arg.getSurpriseWeight();
+	}
+}